@@ -0,0 +1,52 @@
+-- Планы и время запросов к bookings до и после составных индексов.
+-- Запускать на пустой базе с примененными schema.sql и schema-postgresql.sql
+-- (ограничение ex_bookings_item_period снимается, чтобы ускорить заполнение):
+--   psql -d shareit_bench -f benchmark/booking-indexes.sql
+-- Данные: 10 000 пользователей, 100 000 вещей, 3 000 000 бронирований;
+-- пользователю 1 принадлежит каждое десятое бронирование (активный арендатор).
+-- Id задаются явно: последовательности <таблица>_seq идут с шагом 50.
+
+\timing on
+
+TRUNCATE users RESTART IDENTITY CASCADE;
+
+INSERT INTO users (id, name, email)
+SELECT g, 'user' || g, 'user' || g || '@bench.ru'
+FROM generate_series(1, 10000) AS g;
+
+INSERT INTO items (id, name, description, is_available, owner_id)
+SELECT g, 'item' || g, 'description' || g, true, 1 + g % 10000
+FROM generate_series(1, 100000) AS g;
+
+-- Периоды одной вещи не пересекаются: бронирование k вещи занимает сутки и начинается в день 2k
+-- в произвольное время; первая половина бронирований в прошлом, вторая в будущем.
+ALTER TABLE bookings DROP CONSTRAINT IF EXISTS ex_bookings_item_period;
+
+INSERT INTO bookings (id, start_date, end_date, item_id, booker_id, owner_id, status)
+SELECT g + 1, start_date, start_date + INTERVAL '1 day', item_id,
+       CASE WHEN g % 10 = 0 THEN 1 ELSE 2 + (item_id * 31 + k * 7) % 9999 END,
+       i.owner_id,
+       (ARRAY ['APPROVED', 'APPROVED', 'APPROVED', 'WAITING', 'REJECTED', 'CANCELED'])[1 + (item_id + k) % 6]
+FROM (SELECT g, 1 + g % 100000 AS item_id, g / 100000 AS k,
+             CURRENT_DATE - INTERVAL '30 days' + (g / 100000) * INTERVAL '2 days'
+                 + (g::bigint * 7919 % 86400) * INTERVAL '1 second' AS start_date
+      FROM generate_series(0, 2999999) AS g) AS t
+         JOIN items AS i ON i.id = t.item_id;
+
+ANALYZE;
+
+-- Индексы из schema.sql убираются, чтобы снять планы «до».
+DROP INDEX IF EXISTS bookings_index_booker_start;
+DROP INDEX IF EXISTS bookings_index_booker_status_start;
+CREATE INDEX IF NOT EXISTS fk_bookings_index_booker_id ON bookings (booker_id);
+
+\echo '=== before ==='
+\ir booking-queries.sql
+
+CREATE INDEX bookings_index_booker_start ON bookings (booker_id, start_date DESC, id DESC);
+CREATE INDEX bookings_index_booker_status_start ON bookings (booker_id, status, start_date DESC, id DESC);
+DROP INDEX fk_bookings_index_booker_id;
+ANALYZE bookings;
+
+\echo '=== after ==='
+\ir booking-queries.sql
@@ -0,0 +1,47 @@
+-- Запросы в том виде, в каком их формирует BookingRepository.
+
+-- GET /bookings?state=ALL&from=0&size=10
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT * FROM bookings b WHERE b.booker_id = 1 ORDER BY b.start_date DESC LIMIT 10;
+
+-- GET /bookings?state=ALL&from=200&size=10
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT * FROM bookings b WHERE b.booker_id = 1 ORDER BY b.start_date DESC LIMIT 10 OFFSET 200;
+
+-- GET /bookings?state=WAITING
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT * FROM bookings b WHERE b.booker_id = 1 AND b.status = 'WAITING' ORDER BY b.start_date DESC LIMIT 10;
+
+-- GET /bookings?state=PAST
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT * FROM bookings b
+WHERE b.booker_id = 1 AND b.status = 'APPROVED' AND b.end_date < current_timestamp
+  AND b.start_date < current_timestamp
+ORDER BY b.start_date DESC LIMIT 10;
+
+-- GET /bookings?cursor=...
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT * FROM bookings b
+WHERE b.booker_id = 1 AND b.start_date <= CURRENT_DATE
+  AND (b.start_date < CURRENT_DATE OR (b.start_date = CURRENT_DATE AND b.id < 1500000))
+ORDER BY b.start_date DESC, b.id DESC LIMIT 10;
+
+-- GET /items: последнее и следующее бронирование для вещей владельца 4242, если строка item_booking_summary
+-- устарела. Id вещей передаются списком, как в findLastBookingsByItemIds и findNextBookingsByItemIds
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT t.id FROM (SELECT b.*, ROW_NUMBER() OVER (PARTITION BY b.item_id ORDER BY b.end_date DESC) AS rn
+                  FROM bookings AS b
+                  WHERE b.item_id IN (4241, 14241, 24241, 34241, 44241, 54241, 64241, 74241, 84241, 94241)
+                    AND b.status = 'APPROVED' AND b.end_date < current_timestamp) AS t
+WHERE t.rn = 1;
+
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT t.id FROM (SELECT b.*, ROW_NUMBER() OVER (PARTITION BY b.item_id ORDER BY b.start_date ASC) AS rn
+                  FROM bookings AS b
+                  WHERE b.item_id IN (4241, 14241, 24241, 34241, 44241, 54241, 64241, 74241, 84241, 94241)
+                    AND b.status = 'APPROVED' AND b.start_date > current_timestamp) AS t
+WHERE t.rn = 1;
+
+-- GET /bookings/owner?state=ALL
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT * FROM bookings b WHERE b.owner_id = 4242 ORDER BY b.start_date DESC, b.id DESC LIMIT 10;
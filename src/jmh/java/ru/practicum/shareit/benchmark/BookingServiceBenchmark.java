@@ -0,0 +1,106 @@
+package ru.practicum.shareit.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import ru.practicum.shareit.ShareItApp;
+import ru.practicum.shareit.booking.BookingRepository;
+import ru.practicum.shareit.booking.dto.BookingPrintDto;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.enums.Status;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.user.User;
+import ru.practicum.shareit.user.UserRepository;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * BookingService.findAllByState на встроенной H2 (профиль test): 100 пользователей, 1 000 вещей
+ * и 20 000 бронирований, каждое десятое из которых принадлежит одному арендатору.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(value = 1, jvmArgsAppend = "-Dlogging.level.root=WARN")
+public class BookingServiceBenchmark {
+
+    private static final int USERS = 100;
+
+    private static final int ITEMS = 1_000;
+
+    private static final int BOOKINGS = 20_000;
+
+    @Param({"ALL", "CURRENT", "PAST", "FUTURE", "WAITING", "REJECTED"})
+    private ru.practicum.shareit.enums.State state;
+
+    @Param({"0", "1000"})
+    private int from;
+
+    private ConfigurableApplicationContext context;
+
+    private BookingService bookingService;
+
+    private Long bookerId;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(ShareItApp.class)
+                .profiles("test")
+                .web(WebApplicationType.NONE)
+                .properties("spring.jpa.hibernate.show_sql=false")
+                .run();
+        bookingService = context.getBean(BookingService.class);
+        seed(context.getBean(UserRepository.class), context.getBean(ItemRepository.class),
+                context.getBean(BookingRepository.class));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<BookingPrintDto> findAllByState() {
+        return bookingService.findAllByState(bookerId, state, from, 10);
+    }
+
+    private void seed(UserRepository userRepository, ItemRepository itemRepository,
+                      BookingRepository bookingRepository) {
+        List<User> users = new ArrayList<>(USERS);
+        for (int i = 0; i < USERS; i++)
+            users.add(User.builder().name("user" + i).email("user" + i + "@bench.ru").build());
+        users = userRepository.saveAll(users);
+        bookerId = users.get(0).getId();
+
+        List<Item> items = new ArrayList<>(ITEMS);
+        for (int i = 0; i < ITEMS; i++)
+            items.add(Item.builder()
+                    .name("item" + i)
+                    .description("description" + i)
+                    .available(true)
+                    .owner(users.get(1 + i % (USERS - 1)))
+                    .build());
+        items = itemRepository.saveAll(items);
+
+        Status[] statuses = {Status.APPROVED, Status.APPROVED, Status.WAITING, Status.REJECTED};
+        LocalDateTime base = LocalDateTime.now().minusDays(BOOKINGS / ITEMS);
+        List<Booking> bookings = new ArrayList<>(BOOKINGS);
+        for (int i = 0; i < BOOKINGS; i++) {
+            int k = i / ITEMS;
+            bookings.add(Booking.builder()
+                    .start(base.plusDays(2L * k).plusMinutes(i % 1440))
+                    .end(base.plusDays(2L * k + 1).plusMinutes(i % 1440))
+                    .item(items.get(i % ITEMS))
+                    .booker(i % 10 == 0 ? users.get(0) : users.get(1 + (i * 7) % (USERS - 1)))
+                    .status(statuses[(i + k) % statuses.length])
+                    .build());
+        }
+        bookingRepository.saveAll(bookings);
+    }
+}
@@ -0,0 +1,104 @@
+package ru.practicum.shareit.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.ShareItApp;
+import ru.practicum.shareit.booking.BookingRepository;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.enums.Status;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.user.User;
+import ru.practicum.shareit.user.UserRepository;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Вставка 1 000 вещей и 1 000 бронирований одной транзакцией через saveAll. batchSize = 1 — запрос
+ * на каждую строку, как при IDENTITY; batchSize = 50 — JDBC-пакеты, которые возможны благодаря
+ * последовательностям. База задается профилем: test для H2, default для PostgreSQL из application.properties.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(value = 1, jvmArgsAppend = "-Dlogging.level.root=WARN")
+public class BulkInsertBenchmark {
+
+    private static final int ROWS = 1_000;
+
+    @Param({"1", "50"})
+    private int batchSize;
+
+    @Param({"test"})
+    private String profile;
+
+    private ConfigurableApplicationContext context;
+
+    private TransactionTemplate transactionTemplate;
+
+    private ItemRepository itemRepository;
+
+    private BookingRepository bookingRepository;
+
+    private User owner;
+
+    private User booker;
+
+    private int round;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(ShareItApp.class)
+                .profiles(profile)
+                .web(WebApplicationType.NONE)
+                .properties("spring.jpa.hibernate.show_sql=false")
+                .run("--spring.jpa.properties.hibernate.jdbc.batch_size=" + batchSize,
+                        "--shareit.booking-summary.refresh.enabled=false");
+        transactionTemplate = context.getBean(TransactionTemplate.class);
+        itemRepository = context.getBean(ItemRepository.class);
+        bookingRepository = context.getBean(BookingRepository.class);
+        UserRepository userRepository = context.getBean(UserRepository.class);
+        long suffix = System.nanoTime();
+        owner = userRepository.save(User.builder().name("owner").email("owner" + suffix + "@bench.ru").build());
+        booker = userRepository.save(User.builder().name("booker").email("booker" + suffix + "@bench.ru").build());
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<Booking> saveItemsAndBookings() {
+        int current = round++;
+        return transactionTemplate.execute(status -> {
+            List<Item> items = new ArrayList<>(ROWS);
+            for (int i = 0; i < ROWS; i++)
+                items.add(Item.builder()
+                        .name("item" + current + "_" + i)
+                        .description("description" + i)
+                        .available(true)
+                        .owner(owner)
+                        .build());
+            items = itemRepository.saveAll(items);
+
+            LocalDateTime start = LocalDateTime.now().plusDays(1);
+            List<Booking> bookings = new ArrayList<>(ROWS);
+            for (Item item : items)
+                bookings.add(Booking.builder()
+                        .start(start)
+                        .end(start.plusDays(1))
+                        .item(item)
+                        .booker(booker)
+                        .status(Status.WAITING)
+                        .build());
+            return bookingRepository.saveAll(bookings);
+        });
+    }
+}
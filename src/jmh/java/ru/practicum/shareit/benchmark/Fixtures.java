@@ -0,0 +1,153 @@
+package ru.practicum.shareit.benchmark;
+
+import ru.practicum.shareit.booking.dto.BookingPrintView;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.enums.Status;
+import ru.practicum.shareit.item.dto.CommentPrintView;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.User;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+final class Fixtures {
+
+    private static final LocalDateTime NOW = LocalDateTime.of(2023, 1, 1, 12, 0);
+
+    private Fixtures() {
+    }
+
+    static List<Booking> bookings(int size) {
+        User owner = new User(1L, "owner", "owner@mail.ru");
+        User booker = new User(2L, "booker", "booker@mail.ru");
+        Item item = new Item(1L, "Аккумуляторная дрель", "Аккумуляторная дрель + аккумулятор", true, owner, null);
+        List<Booking> bookings = new ArrayList<>(size);
+        for (long i = 0; i < size; i++) {
+            bookings.add(Booking.builder()
+                    .id(i + 1)
+                    .start(NOW.plusDays(i * 2))
+                    .end(NOW.plusDays(i * 2 + 1))
+                    .item(item)
+                    .booker(booker)
+                    .status(Status.APPROVED)
+                    .ownerId(owner.getId())
+                    .build());
+        }
+        return bookings;
+    }
+
+    static List<BookingPrintView> bookingViews(int size) {
+        List<BookingPrintView> bookings = new ArrayList<>(size);
+        for (long i = 0; i < size; i++)
+            bookings.add(new BookingView(i + 1, NOW.plusDays(i * 2), NOW.plusDays(i * 2 + 1), Status.APPROVED,
+                    1L, "Аккумуляторная дрель", 2L));
+        return bookings;
+    }
+
+    static List<CommentPrintView> comments(int size) {
+        List<CommentPrintView> comments = new ArrayList<>(size);
+        for (long i = 0; i < size; i++)
+            comments.add(new Comment(i + 1, "Отличная дрель, всем рекомендую", 1L, "booker", NOW.minusDays(i)));
+        return comments;
+    }
+
+    private static final class BookingView implements BookingPrintView {
+
+        private final Long id;
+        private final LocalDateTime startDate;
+        private final LocalDateTime endDate;
+        private final Status status;
+        private final Long itemId;
+        private final String itemName;
+        private final Long bookerId;
+
+        private BookingView(Long id, LocalDateTime startDate, LocalDateTime endDate, Status status, Long itemId,
+                            String itemName, Long bookerId) {
+            this.id = id;
+            this.startDate = startDate;
+            this.endDate = endDate;
+            this.status = status;
+            this.itemId = itemId;
+            this.itemName = itemName;
+            this.bookerId = bookerId;
+        }
+
+        @Override
+        public Long getId() {
+            return id;
+        }
+
+        @Override
+        public LocalDateTime getStartDate() {
+            return startDate;
+        }
+
+        @Override
+        public LocalDateTime getEndDate() {
+            return endDate;
+        }
+
+        @Override
+        public Status getStatus() {
+            return status;
+        }
+
+        @Override
+        public Long getItemId() {
+            return itemId;
+        }
+
+        @Override
+        public String getItemName() {
+            return itemName;
+        }
+
+        @Override
+        public Long getBookerId() {
+            return bookerId;
+        }
+    }
+
+    private static final class Comment implements CommentPrintView {
+
+        private final Long id;
+        private final String text;
+        private final Long itemId;
+        private final String authorName;
+        private final LocalDateTime created;
+
+        private Comment(Long id, String text, Long itemId, String authorName, LocalDateTime created) {
+            this.id = id;
+            this.text = text;
+            this.itemId = itemId;
+            this.authorName = authorName;
+            this.created = created;
+        }
+
+        @Override
+        public Long getId() {
+            return id;
+        }
+
+        @Override
+        public String getText() {
+            return text;
+        }
+
+        @Override
+        public Long getItemId() {
+            return itemId;
+        }
+
+        @Override
+        public String getAuthorName() {
+            return authorName;
+        }
+
+        @Override
+        public LocalDateTime getCreated() {
+            return created;
+        }
+    }
+}
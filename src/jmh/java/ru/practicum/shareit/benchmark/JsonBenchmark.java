@@ -0,0 +1,53 @@
+package ru.practicum.shareit.benchmark;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import ru.practicum.shareit.booking.BookingMapper;
+import ru.practicum.shareit.booking.dto.BookingPrintDto;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.item.dto.ItemFullPrintDto;
+import ru.practicum.shareit.item.utility.ItemMapper;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Сериализация ответов /bookings и /items тем же ObjectMapper, что строит Spring Boot.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class JsonBenchmark {
+
+    @Param({"10", "100"})
+    private int size;
+
+    private ObjectMapper mapper;
+
+    private List<BookingPrintDto> bookings;
+
+    private ItemFullPrintDto item;
+
+    @Setup
+    public void setUp() {
+        mapper = Jackson2ObjectMapperBuilder.json().build();
+        List<Booking> entities = Fixtures.bookings(size);
+        bookings = BookingMapper.toBookingPrintDtoList(Fixtures.bookingViews(size));
+        item = ItemMapper.toItemFullPrintDtoForOwner(entities.get(0).getItem(),
+                BookingMapper.toBookingShortInfoDto(entities.get(0)),
+                BookingMapper.toBookingShortInfoDto(entities.get(1)),
+                Fixtures.comments(size));
+    }
+
+    @Benchmark
+    public byte[] bookingPrintDtoList() throws JsonProcessingException {
+        return mapper.writeValueAsBytes(bookings);
+    }
+
+    @Benchmark
+    public byte[] itemFullPrintDto() throws JsonProcessingException {
+        return mapper.writeValueAsBytes(item);
+    }
+}
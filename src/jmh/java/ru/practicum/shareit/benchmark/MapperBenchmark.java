@@ -0,0 +1,61 @@
+package ru.practicum.shareit.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import ru.practicum.shareit.booking.BookingMapper;
+import ru.practicum.shareit.booking.dto.BookingPrintDto;
+import ru.practicum.shareit.booking.dto.BookingPrintView;
+import ru.practicum.shareit.booking.dto.BookingShortInfoDto;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.item.dto.CommentPrintView;
+import ru.practicum.shareit.item.dto.ItemFullPrintDto;
+import ru.practicum.shareit.item.utility.ItemMapper;
+import ru.practicum.shareit.utility.FromSizeRequest;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Маппинг сущностей в DTO и построение Pageable без обращения к базе.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class MapperBenchmark {
+
+    @Param({"10", "100"})
+    private int size;
+
+    private List<Booking> bookings;
+
+    private List<BookingPrintView> bookingViews;
+
+    private BookingShortInfoDto lastBooking;
+
+    private BookingShortInfoDto nextBooking;
+
+    private List<CommentPrintView> comments;
+
+    @Setup
+    public void setUp() {
+        bookings = Fixtures.bookings(size);
+        bookingViews = Fixtures.bookingViews(size);
+        lastBooking = BookingMapper.toBookingShortInfoDto(bookings.get(0));
+        nextBooking = BookingMapper.toBookingShortInfoDto(bookings.get(1));
+        comments = Fixtures.comments(size);
+    }
+
+    @Benchmark
+    public List<BookingPrintDto> toBookingPrintDtoList() {
+        return BookingMapper.toBookingPrintDtoList(bookingViews);
+    }
+
+    @Benchmark
+    public ItemFullPrintDto toItemFullPrintDtoForOwner() {
+        return ItemMapper.toItemFullPrintDtoForOwner(bookings.get(0).getItem(), lastBooking, nextBooking, comments);
+    }
+
+    @Benchmark
+    public FromSizeRequest fromSizeRequest() {
+        return FromSizeRequest.of(size * 3, size);
+    }
+}
@@ -0,0 +1,141 @@
+package ru.practicum.shareit.load;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.booking.BookingRepository;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.enums.Status;
+import ru.practicum.shareit.item.model.Comment;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.CommentRepository;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.request.ItemRequest;
+import ru.practicum.shareit.request.ItemRequestRepository;
+import ru.practicum.shareit.user.User;
+import ru.practicum.shareit.user.UserRepository;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+import java.util.function.IntFunction;
+
+/**
+ * Заполняет базу через репозитории пачками по CHUNK строк, каждая пачка в своей транзакции.
+ * Размеры таблиц выводятся из числа бронирований: на 50 бронирований один пользователь,
+ * на 10 — одна вещь и один отзыв. Брони одной вещи идут подряд через день и не пересекаются,
+ * половина из них в прошлом, половина в будущем.
+ */
+@Slf4j
+@RequiredArgsConstructor
+public class DataGenerator {
+
+    static final String[] WORDS = {"дрель", "пила", "лестница", "палатка", "велосипед", "перфоратор",
+            "самокат", "проектор", "отвертка", "рюкзак", "лыжи", "мангал", "шуруповерт", "удочка", "фотоаппарат"};
+
+    private static final int CHUNK = 1_000;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final UserRepository userRepository;
+
+    private final ItemRequestRepository itemRequestRepository;
+
+    private final ItemRepository itemRepository;
+
+    private final BookingRepository bookingRepository;
+
+    private final CommentRepository commentRepository;
+
+    public Dataset generate(int bookings) {
+        int users = Math.max(20, bookings / 50);
+        int owners = users / 2;
+        int items = Math.max(10, bookings / 10);
+        int requests = users - owners;
+        int comments = bookings / 10;
+        int slots = (bookings + items - 1) / items;
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+        LocalDateTime base = now.minusDays(2L * Math.max(1, slots / 2));
+        String run = Long.toString(System.currentTimeMillis(), 36);
+        long started = System.nanoTime();
+
+        long[] userIds = insert("users", userRepository, users, i -> User.builder()
+                .name("Пользователь " + i)
+                .email("load-" + run + "-" + i + "@shareit.ru")
+                .build(), User::getId);
+        Dataset dataset = new Dataset(userIds, owners, new long[items], bookings, requests, comments);
+
+        long[] requestIds = insert("requests", itemRequestRepository, requests, i -> ItemRequest.builder()
+                .description("Нужна " + WORDS[i % WORDS.length])
+                .requesterId(dataset.booker(i))
+                .created(base.plusMinutes(i))
+                .build(), ItemRequest::getId);
+
+        long[] itemIds = insert("items", itemRepository, items, i -> Item.builder()
+                .name(capitalize(WORDS[i % WORDS.length]) + " " + i)
+                .description("Описание: " + WORDS[(i / WORDS.length) % WORDS.length] + ", состояние хорошее")
+                .available(i % 7 != 0)
+                .owner(userRef(dataset.owner(i)))
+                .requestId(i % 10 == 0 ? requestIds[(i / 10) % requests] : null)
+                .build(), Item::getId);
+        System.arraycopy(itemIds, 0, dataset.getItemIds(), 0, items);
+
+        insert("bookings", bookingRepository, bookings, i -> {
+            int item = i % items;
+            LocalDateTime start = base.plusDays(2L * (i / items));
+            return Booking.builder()
+                    .start(start)
+                    .end(start.plusDays(1))
+                    .item(Item.builder().id(itemIds[item]).owner(userRef(dataset.owner(item))).build())
+                    .ownerId(dataset.owner(item))
+                    .booker(userRef(dataset.booker(i)))
+                    .status(status(i, start.isBefore(now)))
+                    .build();
+        }, Booking::getId);
+
+        insert("comments", commentRepository, comments, i -> Comment.builder()
+                .text("Отличная " + WORDS[i % WORDS.length])
+                .itemId(itemIds[i % items])
+                .author(userRef(dataset.booker(i)))
+                .created(base.plusDays(1).plusMinutes(i % 1440))
+                .build(), Comment::getId);
+
+        log.info("Сгенерировано {} пользователей, {} вещей, {} бронирований, {} запросов, {} отзывов за {} с",
+                users, items, bookings, requests, comments, (System.nanoTime() - started) / 1_000_000_000);
+        return dataset;
+    }
+
+    private <T> long[] insert(String table, JpaRepository<T, Long> repository, int count,
+                              IntFunction<T> factory, Function<T, Long> id) {
+        long[] ids = new long[count];
+        for (int from = 0; from < count; from += CHUNK) {
+            int to = Math.min(count, from + CHUNK);
+            List<T> chunk = new ArrayList<>(to - from);
+            for (int i = from; i < to; i++)
+                chunk.add(factory.apply(i));
+            transactionTemplate.executeWithoutResult(status -> repository.saveAll(chunk));
+            for (int i = from; i < to; i++)
+                ids[i] = id.apply(chunk.get(i - from));
+            if (to % (CHUNK * 100) == 0)
+                log.info("{}: {} из {}", table, to, count);
+        }
+        return ids;
+    }
+
+    private static Status status(int index, boolean past) {
+        if (index % 10 == 0)
+            return Status.REJECTED;
+        return past || index % 2 == 0 ? Status.APPROVED : Status.WAITING;
+    }
+
+    private static User userRef(long id) {
+        return User.builder().id(id).build();
+    }
+
+    private static String capitalize(String word) {
+        return Character.toUpperCase(word.charAt(0)) + word.substring(1);
+    }
+}
@@ -0,0 +1,32 @@
+package ru.practicum.shareit.load;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Id, созданные генератором. Первые owners пользователей владеют вещами, остальные бронируют.
+ */
+@Getter
+@RequiredArgsConstructor
+public class Dataset {
+
+    private final long[] userIds;
+
+    private final int owners;
+
+    private final long[] itemIds;
+
+    private final long bookings;
+
+    private final long requests;
+
+    private final long comments;
+
+    public long owner(int index) {
+        return userIds[index % owners];
+    }
+
+    public long booker(int index) {
+        return userIds[owners + index % (userIds.length - owners)];
+    }
+}
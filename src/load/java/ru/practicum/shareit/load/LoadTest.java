@@ -0,0 +1,62 @@
+package ru.practicum.shareit.load;
+
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.ShareItApp;
+import ru.practicum.shareit.booking.BookingRepository;
+import ru.practicum.shareit.booking.service.ItemBookingSummaryService;
+import ru.practicum.shareit.item.repository.CommentRepository;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.search.ItemSearchIndex;
+import ru.practicum.shareit.request.ItemRequestRepository;
+import ru.practicum.shareit.user.UserRepository;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Нагрузочный тест: поднимает приложение на случайном порту, заполняет базу через репозитории
+ * и гоняет смесь запросов на чтение, после чего печатает p50/p99 и пропускную способность.
+ * <p>
+ * Параметры (системные свойства):
+ * load.bookings — число бронирований, остальные таблицы масштабируются от него (по умолчанию 10 000);
+ * load.threads — число параллельных клиентов (8); load.warmup и load.duration — прогрев и замер в секундах (10 и 60).
+ * База выбирается профилем Spring: test — встроенная H2, без профиля — PostgreSQL из application.properties.
+ */
+public class LoadTest {
+
+    public static void main(String[] args) throws InterruptedException {
+        int bookings = Integer.getInteger("load.bookings", 10_000);
+        int threads = Integer.getInteger("load.threads", 8);
+        Duration warmup = Duration.ofSeconds(Integer.getInteger("load.warmup", 10));
+        Duration duration = Duration.ofSeconds(Integer.getInteger("load.duration", 60));
+
+        List<String> arguments = new ArrayList<>(List.of("--server.port=0", "--spring.jpa.hibernate.show_sql=false",
+                "--shareit.booking-summary.refresh.enabled=false",
+                "--logging.level.root=WARN", "--logging.level.ru.practicum.shareit.load=INFO",
+                "--logging.level.org.springframework.transaction.interceptor=WARN",
+                "--logging.level.org.springframework.orm.jpa.JpaTransactionManager=WARN"));
+        arguments.addAll(List.of(args));
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(ShareItApp.class)
+                .run(arguments.toArray(String[]::new));
+        try {
+            Dataset dataset = new DataGenerator(context.getBean(TransactionTemplate.class),
+                    context.getBean(UserRepository.class), context.getBean(ItemRequestRepository.class),
+                    context.getBean(ItemRepository.class), context.getBean(BookingRepository.class),
+                    context.getBean(CommentRepository.class)).generate(bookings);
+            context.getBean(ItemSearchIndex.class).rebuild();
+            ItemBookingSummaryService summaryService = context.getBean(ItemBookingSummaryService.class);
+            int refreshed;
+            do {
+                refreshed = summaryService.refreshStale(1000);
+            } while (refreshed > 0);
+            int port = Integer.parseInt(context.getEnvironment().getRequiredProperty("local.server.port"));
+            Report report = new Workload("http://localhost:" + port, dataset, threads).run(warmup, duration);
+            System.out.println(report.format());
+        } finally {
+            context.close();
+        }
+    }
+}
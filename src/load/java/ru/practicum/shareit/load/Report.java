@@ -0,0 +1,85 @@
+package ru.practicum.shareit.load;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Задержки по эндпоинтам: p50, p99, максимум и пропускная способность за время замера.
+ */
+public class Report {
+
+    private final Map<String, Latencies> latencies = new ConcurrentHashMap<>();
+
+    private Duration duration = Duration.ZERO;
+
+    public void record(String endpoint, long nanos, boolean ok) {
+        latencies.computeIfAbsent(endpoint, e -> new Latencies()).add(nanos, ok);
+    }
+
+    void finish(Duration duration) {
+        this.duration = duration;
+    }
+
+    public String format() {
+        StringBuilder out = new StringBuilder(String.format("%n%-22s %9s %7s %9s %9s %9s %9s%n",
+                "endpoint", "requests", "errors", "rps", "p50, ms", "p99, ms", "max, ms"));
+        Latencies total = new Latencies();
+        new TreeMap<>(latencies).forEach((endpoint, l) -> {
+            line(out, endpoint, l);
+            total.addAll(l);
+        });
+        line(out, "total", total);
+        return out.toString();
+    }
+
+    private void line(StringBuilder out, String endpoint, Latencies l) {
+        long[] sorted = l.sorted();
+        out.append(String.format("%-22s %9d %7d %9.1f %9.2f %9.2f %9.2f%n", endpoint, sorted.length, l.errors,
+                sorted.length / (double) Math.max(1, duration.toSeconds()),
+                millis(percentile(sorted, 50)), millis(percentile(sorted, 99)),
+                millis(sorted.length == 0 ? 0 : sorted[sorted.length - 1])));
+    }
+
+    private static long percentile(long[] sorted, int percent) {
+        if (sorted.length == 0)
+            return 0;
+        int rank = (int) Math.ceil(percent / 100.0 * sorted.length);
+        return sorted[Math.max(0, rank - 1)];
+    }
+
+    private static double millis(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+
+    private static class Latencies {
+
+        private long[] values = new long[1024];
+
+        private int size;
+
+        private long errors;
+
+        synchronized void add(long nanos, boolean ok) {
+            if (size == values.length)
+                values = Arrays.copyOf(values, size * 2);
+            values[size++] = nanos;
+            if (!ok)
+                errors++;
+        }
+
+        synchronized void addAll(Latencies other) {
+            for (long value : other.sorted())
+                add(value, true);
+            errors += other.errors;
+        }
+
+        synchronized long[] sorted() {
+            long[] copy = Arrays.copyOf(values, size);
+            Arrays.sort(copy);
+            return copy;
+        }
+    }
+}
@@ -0,0 +1,143 @@
+package ru.practicum.shareit.load;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Смесь запросов на чтение, близкая к пользовательской: карточка и список вещей, поиск,
+ * бронирования арендатора и владельца, чужие запросы. Пользователь каждого запроса случайный.
+ */
+@Slf4j
+public class Workload {
+
+    private static final String[] STATES = {"ALL", "CURRENT", "PAST", "FUTURE", "WAITING", "REJECTED"};
+
+    private final String baseUrl;
+
+    private final Dataset dataset;
+
+    private final int threads;
+
+    private final HttpClient client = HttpClient.newBuilder()
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+
+    private final List<Endpoint> endpoints = new ArrayList<>();
+
+    private int totalWeight;
+
+    public Workload(String baseUrl, Dataset dataset, int threads) {
+        this.baseUrl = baseUrl;
+        this.dataset = dataset;
+        this.threads = threads;
+        add("GET /items/{itemId}", 20, r -> get("/items/" + item(r), booker(r)));
+        add("GET /items", 15, r -> get("/items", owner(r)));
+        add("GET /items/search", 15, r -> get("/items/search?text=" + URLEncoder.encode(
+                DataGenerator.WORDS[r.nextInt(DataGenerator.WORDS.length)], StandardCharsets.UTF_8), booker(r)));
+        add("GET /bookings", 20, r -> get("/bookings?state=" + STATES[r.nextInt(STATES.length)], booker(r)));
+        add("GET /bookings/owner", 20, r -> get("/bookings/owner?state=" + STATES[r.nextInt(STATES.length)],
+                owner(r)));
+        add("GET /requests/all", 10, r -> get("/requests/all", booker(r)));
+    }
+
+    public Report run(Duration warmup, Duration duration) throws InterruptedException {
+        log.info("Прогрев {} с", warmup.toSeconds());
+        drive(warmup, new Report());
+        log.info("Замер {} с на {} потоках", duration.toSeconds(), threads);
+        Report report = new Report();
+        drive(duration, report);
+        report.finish(duration);
+        return report;
+    }
+
+    private void drive(Duration duration, Report report) throws InterruptedException {
+        long deadline = System.nanoTime() + duration.toNanos();
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        for (int i = 0; i < threads; i++) {
+            executor.execute(() -> {
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                while (System.nanoTime() < deadline && !Thread.currentThread().isInterrupted())
+                    call(pick(random), random, report);
+            });
+        }
+        executor.shutdown();
+        executor.awaitTermination(duration.toSeconds() + 60, TimeUnit.SECONDS);
+    }
+
+    private void call(Endpoint endpoint, ThreadLocalRandom random, Report report) {
+        HttpRequest request = endpoint.request.apply(random);
+        long started = System.nanoTime();
+        boolean ok;
+        try {
+            ok = client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() == 200;
+        } catch (IOException e) {
+            ok = false;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        }
+        report.record(endpoint.name, System.nanoTime() - started, ok);
+    }
+
+    private HttpRequest get(String uri, long userId) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + uri))
+                .header("X-Sharer-User-Id", String.valueOf(userId))
+                .timeout(Duration.ofSeconds(30))
+                .GET()
+                .build();
+    }
+
+    private void add(String name, int weight, Function<ThreadLocalRandom, HttpRequest> request) {
+        endpoints.add(new Endpoint(name, weight, request));
+        totalWeight += weight;
+    }
+
+    private Endpoint pick(ThreadLocalRandom random) {
+        int value = random.nextInt(totalWeight);
+        for (Endpoint endpoint : endpoints) {
+            value -= endpoint.weight;
+            if (value < 0)
+                return endpoint;
+        }
+        throw new IllegalStateException();
+    }
+
+    private long item(ThreadLocalRandom random) {
+        long[] ids = dataset.getItemIds();
+        return ids[random.nextInt(ids.length)];
+    }
+
+    private long owner(ThreadLocalRandom random) {
+        return dataset.owner(random.nextInt(dataset.getOwners()));
+    }
+
+    private long booker(ThreadLocalRandom random) {
+        return dataset.booker(random.nextInt(dataset.getUserIds().length - dataset.getOwners()));
+    }
+
+    @RequiredArgsConstructor
+    private static class Endpoint {
+
+        private final String name;
+
+        private final int weight;
+
+        private final Function<ThreadLocalRandom, HttpRequest> request;
+    }
+}
@@ -98,6 +98,13 @@ public class ErrorHandler {
         return Map.of("Error", e.getMessage());
     }
 
+    @ExceptionHandler
+    @ResponseStatus(HttpStatus.BAD_REQUEST)
+    public Map<String, String> handleInvalidCursorException(final InvalidCursorException e) {
+        log.info("Error {}", e.getMessage());
+        return Map.of("Error", e.getMessage());
+    }
+
     @ExceptionHandler
     @ResponseStatus(HttpStatus.BAD_REQUEST)
     public Map<String, String> handleAccessBookingException(final AccessBookingException e) {
@@ -111,4 +118,25 @@ public class ErrorHandler {
         log.info("Error {}", e.getMessage());
         return Map.of("Error", e.getMessage());
     }
-}
\ No newline at end of file
+
+    @ExceptionHandler
+    @ResponseStatus(HttpStatus.CONFLICT)
+    public Map<String, String> handleBookingOverlapException(final BookingOverlapException e) {
+        log.info("Error {}", e.getMessage());
+        return Map.of("Error", e.getMessage());
+    }
+
+    @ExceptionHandler
+    @ResponseStatus(HttpStatus.BAD_REQUEST)
+    public Map<String, String> handleBatchSizeException(final BatchSizeException e) {
+        log.info("Error {}", e.getMessage());
+        return Map.of("Error", e.getMessage());
+    }
+
+    @ExceptionHandler
+    @ResponseStatus(HttpStatus.BAD_REQUEST)
+    public Map<String, String> handleImportFormatException(final ImportFormatException e) {
+        log.info("Error {}", e.getMessage());
+        return Map.of("Error", e.getMessage());
+    }
+}
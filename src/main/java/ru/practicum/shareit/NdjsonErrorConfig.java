@@ -0,0 +1,36 @@
+package ru.practicum.shareit;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Ошибка в запросе с Accept: application/x-ndjson (выгрузка броней, импорт вещей) отдается одной JSON-строкой:
+ * без этого ErrorHandler не смог бы записать ответ, и клиент получил бы 500 вместо 404 или 400.
+ */
+@Configuration
+public class NdjsonErrorConfig {
+
+    @Bean
+    public WebMvcConfigurer ndjsonErrorConfigurer() {
+        return new WebMvcConfigurer() {
+            @Override
+            public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+                converters.stream()
+                        .filter(MappingJackson2HttpMessageConverter.class::isInstance)
+                        .map(MappingJackson2HttpMessageConverter.class::cast)
+                        .forEach(converter -> {
+                            List<MediaType> mediaTypes = new ArrayList<>(converter.getSupportedMediaTypes());
+                            mediaTypes.add(MediaType.APPLICATION_NDJSON);
+                            converter.setSupportedMediaTypes(mediaTypes);
+                        });
+            }
+        };
+    }
+}
@@ -2,7 +2,14 @@ package ru.practicum.shareit;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.context.annotation.Bean;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
+import java.time.Clock;
+
+@EnableCaching
+@EnableScheduling
 @SpringBootApplication
 public class ShareItApp {
 
@@ -10,4 +17,9 @@ public class ShareItApp {
 		SpringApplication.run(ShareItApp.class, args);
 	}
 
+	@Bean
+	public Clock clock() {
+		return Clock.systemDefaultZone();
+	}
+
 }
@@ -0,0 +1,65 @@
+package ru.practicum.shareit.booking;
+
+import ru.practicum.shareit.booking.dto.BookingPeriodView;
+import ru.practicum.shareit.enums.Status;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Занятые периоды одной вещи в виде непересекающихся полуинтервалов [start, end),
+ * упорядоченных по началу. Пересекающиеся и смежные периоды сливаются при добавлении.
+ */
+public class BookingCalendar {
+
+    public static final List<Status> BLOCKING_STATUSES = List.of(Status.APPROVED, Status.WAITING);
+
+    private final TreeMap<LocalDateTime, LocalDateTime> periods = new TreeMap<>();
+
+    public static BookingCalendar of(List<BookingPeriodView> bookings) {
+        BookingCalendar calendar = new BookingCalendar();
+        for (BookingPeriodView booking : bookings)
+            calendar.add(booking.getStart(), booking.getEnd());
+        return calendar;
+    }
+
+    public void add(LocalDateTime start, LocalDateTime end) {
+        Map.Entry<LocalDateTime, LocalDateTime> previous = periods.floorEntry(start);
+        if (previous != null && !previous.getValue().isBefore(start)) {
+            start = previous.getKey();
+            end = max(end, previous.getValue());
+        }
+        Map.Entry<LocalDateTime, LocalDateTime> next = periods.ceilingEntry(start);
+        while (next != null && !next.getKey().isAfter(end)) {
+            end = max(end, next.getValue());
+            periods.remove(next.getKey());
+            next = periods.higherEntry(next.getKey());
+        }
+        periods.put(start, end);
+    }
+
+    public boolean isFree(LocalDateTime start, LocalDateTime end) {
+        Map.Entry<LocalDateTime, LocalDateTime> candidate = periods.lowerEntry(end);
+        return candidate == null || !candidate.getValue().isAfter(start);
+    }
+
+    /**
+     * Ближайшее начало не раньше from, с которого свободен период длиной duration.
+     */
+    public LocalDateTime nextFreeStart(LocalDateTime from, Duration duration) {
+        LocalDateTime start = from;
+        while (true) {
+            Map.Entry<LocalDateTime, LocalDateTime> candidate = periods.lowerEntry(start.plus(duration));
+            if (candidate == null || !candidate.getValue().isAfter(start))
+                return start;
+            start = candidate.getValue();
+        }
+    }
+
+    private static LocalDateTime max(LocalDateTime first, LocalDateTime second) {
+        return first.isAfter(second) ? first : second;
+    }
+}
@@ -1,18 +1,31 @@
 package ru.practicum.shareit.booking;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import ru.practicum.shareit.booking.dto.BookingBatchResultDto;
 import ru.practicum.shareit.booking.dto.BookingCreateDto;
 import ru.practicum.shareit.booking.dto.BookingPrintDto;
 import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.enums.State;
 import ru.practicum.shareit.markerinterface.Create;
 
+import javax.servlet.http.HttpServletResponse;
 import javax.validation.constraints.Positive;
 import javax.validation.constraints.PositiveOrZero;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
 import java.util.Collection;
+import java.util.List;
+import java.util.function.Consumer;
 
 
 @RestController
@@ -21,8 +34,12 @@ import java.util.Collection;
 @Slf4j
 public class BookingController {
 
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
     private final BookingService bookingService;
 
+    private final ObjectMapper objectMapper;
+
     @PostMapping
     @ResponseStatus(HttpStatus.CREATED)
     public BookingPrintDto create(@RequestHeader(value = "X-Sharer-User-Id") Long userId,
@@ -32,6 +49,14 @@ public class BookingController {
         return bookingService.create(userId, bookingCreateDtoDto);
     }
 
+    @PostMapping("/batch")
+    @ResponseStatus(HttpStatus.OK)
+    public List<BookingBatchResultDto> createAll(@RequestHeader(value = "X-Sharer-User-Id") Long userId,
+                                                 @RequestBody List<BookingCreateDto> bookingCreateDtos) {
+        log.info("Create {} bookings by user with id={}", bookingCreateDtos.size(), userId);
+        return bookingService.createAll(userId, bookingCreateDtos);
+    }
+
     @PatchMapping("/{bookingId}")
     @ResponseStatus(HttpStatus.OK)
     public BookingPrintDto approve(@RequestHeader(value = "X-Sharer-User-Id") Long userId,
@@ -55,10 +80,17 @@ public class BookingController {
             @PositiveOrZero @RequestParam(value = "from", defaultValue = "0") Integer from,
             @Positive @RequestParam(value = "size", defaultValue = "10") Integer size,
             @RequestHeader(value = "X-Sharer-User-Id") Long userId,
-            @RequestParam(value = "state", required = false, defaultValue = "ALL") String state
+            @RequestParam(value = "state", required = false, defaultValue = "ALL") String state,
+            @RequestParam(value = "cursor", required = false) String cursor,
+            HttpServletResponse response
     ) {
         log.info("Get booking by value: {}", userId);
-        return bookingService.findAllByState(userId, state, from, size);
+        State bookingState = State.from(state);
+        List<BookingPrintDto> bookings = cursor == null
+                ? bookingService.findAllByState(userId, bookingState, from, size)
+                : bookingService.findAllByStateAfter(userId, bookingState, BookingCursor.decode(cursor), size);
+        setNextCursor(response, bookings, size);
+        return bookings;
     }
 
     @GetMapping("/owner")
@@ -67,9 +99,70 @@ public class BookingController {
             @PositiveOrZero @RequestParam(value = "from", defaultValue = "0") Integer from,
             @Positive @RequestParam(value = "size", defaultValue = "10") Integer size,
             @RequestHeader(value = "X-Sharer-User-Id") Long userId,
-            @RequestParam(value = "state", required = false, defaultValue = "ALL") String state
+            @RequestParam(value = "state", required = false, defaultValue = "ALL") String state,
+            @RequestParam(value = "cursor", required = false) String cursor,
+            HttpServletResponse response
     ) {
         log.info("Get booking by value: {}", userId);
-        return bookingService.findAllByStateForOwner(userId, state, from, size);
+        State bookingState = State.from(state);
+        List<BookingPrintDto> bookings = cursor == null
+                ? bookingService.findAllByStateForOwner(userId, bookingState, from, size)
+                : bookingService.findAllByStateForOwnerAfter(userId, bookingState, BookingCursor.decode(cursor), size);
+        setNextCursor(response, bookings, size);
+        return bookings;
+    }
+
+    /**
+     * Все брони пользователя одним ответом application/x-ndjson. Строки пишутся в ответ по мере чтения
+     * из базы, поэтому память не зависит от объема выгрузки.
+     */
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public void exportAllByState(
+            @RequestHeader(value = "X-Sharer-User-Id") Long userId,
+            @RequestParam(value = "state", required = false, defaultValue = "ALL") String state,
+            HttpServletResponse response
+    ) throws IOException {
+        log.info("Export booking by value: {}", userId);
+        State bookingState = State.from(state);
+        export(response, action -> bookingService.exportAllByState(userId, bookingState, action));
+    }
+
+    @GetMapping(value = "/owner/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public void exportAllByStateForOwner(
+            @RequestHeader(value = "X-Sharer-User-Id") Long userId,
+            @RequestParam(value = "state", required = false, defaultValue = "ALL") String state,
+            HttpServletResponse response
+    ) throws IOException {
+        log.info("Export booking for owner by value: {}", userId);
+        State bookingState = State.from(state);
+        export(response, action -> bookingService.exportAllByStateForOwner(userId, bookingState, action));
+    }
+
+    private void export(HttpServletResponse response, Consumer<Consumer<BookingPrintDto>> exporter) throws IOException {
+        response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        ObjectWriter writer = objectMapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        JsonGenerator generator = objectMapper.getFactory().createGenerator(response.getOutputStream());
+        generator.setRootValueSeparator(null);
+        try {
+            exporter.accept(booking -> {
+                try {
+                    writer.writeValue(generator, booking);
+                    generator.writeRaw('\n');
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        generator.flush();
+    }
+
+    private static void setNextCursor(HttpServletResponse response, List<BookingPrintDto> bookings, Integer size) {
+        if (bookings.size() < size)
+            return;
+        BookingPrintDto last = bookings.get(bookings.size() - 1);
+        response.setHeader(NEXT_CURSOR_HEADER, new BookingCursor(last.getStart(), last.getId()).encode());
     }
 }
@@ -0,0 +1,46 @@
+package ru.practicum.shareit.booking;
+
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.ToString;
+import ru.practicum.shareit.exceptions.InvalidCursorException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Позиция в списке бронирований, упорядоченном по (start desc, id desc).
+ * Следующая страница начинается строго после бронирования с этими start и id,
+ * поэтому ее стоимость не зависит от глубины, в отличие от OFFSET.
+ */
+@Getter
+@ToString
+@EqualsAndHashCode
+@RequiredArgsConstructor
+public class BookingCursor {
+
+    private static final String SEPARATOR = "_";
+
+    private final LocalDateTime start;
+
+    private final Long id;
+
+    public String encode() {
+        String raw = start + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static BookingCursor decode(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = raw.lastIndexOf(SEPARATOR);
+            return new BookingCursor(LocalDateTime.parse(raw.substring(0, separator)),
+                    Long.parseLong(raw.substring(separator + 1)));
+        } catch (IllegalArgumentException | IndexOutOfBoundsException | DateTimeParseException e) {
+            throw new InvalidCursorException("Некорректный курсор: " + cursor);
+        }
+    }
+}
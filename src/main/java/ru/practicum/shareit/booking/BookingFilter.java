@@ -0,0 +1,57 @@
+package ru.practicum.shareit.booking;
+
+import lombok.Builder;
+import lombok.Getter;
+import lombok.ToString;
+import ru.practicum.shareit.enums.Status;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Условия выборки списка бронирований. Пустые поля не ограничивают выборку,
+ * границы по времени вычисляются в Java и передаются в запрос параметрами.
+ */
+@Getter
+@ToString
+@Builder(toBuilder = true)
+public class BookingFilter {
+
+    public enum Role {
+        BOOKER,
+        OWNER
+    }
+
+    private final Role role;
+
+    private final Long userId;
+
+    @Builder.Default
+    private final Collection<Status> statuses = List.of();
+
+    /**
+     * start > startAfter
+     */
+    private final LocalDateTime startAfter;
+
+    /**
+     * start <= startUntil
+     */
+    private final LocalDateTime startUntil;
+
+    /**
+     * end > endAfter
+     */
+    private final LocalDateTime endAfter;
+
+    /**
+     * end < endBefore
+     */
+    private final LocalDateTime endBefore;
+
+    /**
+     * Продолжить после этой брони в порядке (start desc, id desc).
+     */
+    private final BookingCursor cursor;
+}
@@ -3,8 +3,11 @@ package ru.practicum.shareit.booking;
 import org.springframework.stereotype.Component;
 import ru.practicum.shareit.booking.dto.BookingCreateDto;
 import ru.practicum.shareit.booking.dto.BookingPrintDto;
+import ru.practicum.shareit.booking.dto.BookingPrintView;
 import ru.practicum.shareit.booking.dto.BookingShortInfoDto;
 import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingSnapshot;
+import ru.practicum.shareit.enums.Status;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.user.User;
 
@@ -33,8 +36,19 @@ public class BookingMapper {
                 .id(booking.getId())
                 .start(booking.getStart())
                 .end(booking.getEnd())
-                .item(item)
-                .booker(booker)
+                .item(new BookingPrintDto.ItemInfo(item.getId(), item.getName()))
+                .booker(new BookingPrintDto.BookerInfo(booker.getId()))
+                .status(booking.getStatus())
+                .build();
+    }
+
+    public static BookingPrintDto toBookingPrintDto(BookingPrintView booking) {
+        return BookingPrintDto.builder()
+                .id(booking.getId())
+                .start(booking.getStartDate())
+                .end(booking.getEndDate())
+                .item(new BookingPrintDto.ItemInfo(booking.getItemId(), booking.getItemName()))
+                .booker(new BookingPrintDto.BookerInfo(booking.getBookerId()))
                 .status(booking.getStatus())
                 .build();
     }
@@ -54,7 +68,20 @@ public class BookingMapper {
                 .build();
     }
 
-    public static List<BookingPrintDto> toBookingPrintDtoList(List<Booking> bookingList) {
+    public static BookingShortInfoDto toBookingShortInfoDto(Long itemId, BookingSnapshot booking) {
+        if (booking == null)
+            return null;
+        return BookingShortInfoDto.builder()
+                .id(booking.getId())
+                .start(booking.getStart())
+                .end(booking.getEnd())
+                .itemId(itemId)
+                .bookerId(booking.getBookerId())
+                .status(Status.APPROVED)
+                .build();
+    }
+
+    public static List<BookingPrintDto> toBookingPrintDtoList(List<BookingPrintView> bookingList) {
         return bookingList.stream()
                 .map(BookingMapper::toBookingPrintDto)
                 .collect(Collectors.toList());
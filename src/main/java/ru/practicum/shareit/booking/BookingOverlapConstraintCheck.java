@@ -0,0 +1,41 @@
+package ru.practicum.shareit.booking;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * schema-postgresql.sql не создает ограничение ex_bookings_item_period, если в bookings уже есть
+ * пересекающиеся брони. Тогда при старте пишется предупреждение: пересечения ловит только проверка
+ * в приложении, пока их не разберут вручную.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "spring.sql.init.platform", havingValue = "postgresql")
+public class BookingOverlapConstraintCheck {
+
+    private static final String CONSTRAINT_EXISTS = "SELECT COUNT(*) FROM pg_constraint " +
+            "WHERE conname = 'ex_bookings_item_period'";
+
+    private static final String COUNT_CONFLICTS = "SELECT COUNT(*) FROM bookings AS a " +
+            "JOIN bookings AS b ON b.item_id = a.item_id AND b.id > a.id " +
+            "AND tsrange(b.start_date, b.end_date) && tsrange(a.start_date, a.end_date) " +
+            "WHERE a.status IN ('APPROVED', 'WAITING') AND b.status IN ('APPROVED', 'WAITING')";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void check() {
+        Long constraints = jdbcTemplate.queryForObject(CONSTRAINT_EXISTS, Long.class);
+        if (constraints != null && constraints > 0)
+            return;
+        Long conflicts = jdbcTemplate.queryForObject(COUNT_CONFLICTS, Long.class);
+        log.warn("Ограничение ex_bookings_item_period не создано: пересекающихся пар броней {}. " +
+                "Отклоните или отмените лишние брони и перезапустите приложение", conflicts);
+    }
+}
@@ -1,15 +1,21 @@
 package ru.practicum.shareit.booking;
 
-import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import ru.practicum.shareit.booking.dto.BookingEndView;
+import ru.practicum.shareit.booking.dto.BookingItemPeriodView;
+import ru.practicum.shareit.booking.dto.BookingPeriodView;
+import ru.practicum.shareit.booking.dto.BookingShortInfoView;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.enums.Status;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
-public interface BookingRepository extends JpaRepository<Booking, Long> {
+public interface BookingRepository extends JpaRepository<Booking, Long>, BookingSearchRepository {
 
 
     @Override
@@ -21,80 +27,56 @@ public interface BookingRepository extends JpaRepository<Booking, Long> {
     @Override
     boolean existsById(Long id);
 
-    List<Booking> findAllByBookerIdOrderByStartDesc(Long userId, Pageable pageable);
-
-    List<Booking> findAllByBookerIdAndStatusOrderByStartDesc(Long userId, Status status, Pageable pageable);
-
-
-    @Query(value = "SELECT b " +
-            "FROM Booking AS b " +
-            "LEFT OUTER JOIN Item as i ON b.item.id=i.id " +
-            "WHERE i.owner.id = ?1 AND b.status = ?2 " +
-            "ORDER BY b.start DESC ")
-    List<Booking> findAllForOwnerByStatus(Long userId, Status status, Pageable pageable);
-
-
-    @Query(value = "SELECT b " +
-            "FROM Booking AS b " +
-            "LEFT OUTER JOIN Item as i ON b.item.id=i.id " +
-            "WHERE i.owner.id = ?1 " +
-            "ORDER BY b.start DESC ")
-    List<Booking> findAllForOwner(Long userId, Pageable pageable);
+    @EntityGraph(Booking.WITH_ITEM)
+    Optional<Booking> findWithItemById(Long id);
 
 //    List<Booking> findAllByItemIdAndStatusIs(Long itemId, Status status);
 
-    @Query("select b from Booking b " +
-            "where b.booker.id = ?1 and b.status in ?2 " +
-            "and b.start <= current_timestamp and b.end > current_timestamp " +
-            "order by b.start desc ")
-    List<Booking> findAllWithStateCurrent(Long userId, List<Status> status, Pageable pageable);
-
-    @Query("select b from Booking b " +
-            "where b.item.owner.id = ?1 and b.status in ?2 " +
-            "and b.start <= current_timestamp and b.end > current_timestamp " +
-            "order by b.start desc ")
-    List<Booking> findAllWithStateCurrentForOwner(Long userId, List<Status> status, Pageable pageable);
-
-    @Query("select b from Booking b " +
-            "where b.booker.id = ?1 " +
-            "and b.status in ?2 and b.start > current_timestamp " +
-            "order by b.start desc ")
-    List<Booking> findAllWithStateFuture(Long userId, List<Status> status, Pageable pageable);
-
-    @Query("select b from Booking b " +
-            "where b.item.owner.id = ?1 " +
-            "and b.status in ?2 and b.start > current_timestamp " +
-            "order by b.start desc ")
-    List<Booking> findAllWithStateFutureForOwner(Long userId, List<Status> status, Pageable pageable);
-
-    @Query("select b from Booking b " +
-            "where b.booker.id = ?1 and b.status = ?2 " +
-            "and b.end < current_timestamp " +
-            "order by b.start desc ")
-    List<Booking> findAllWithStatePast(Long userId, Status status, Pageable pageable);
-
-    @Query("select b from Booking b " +
-            "where b.item.owner.id = ?1 and b.status = ?2 " +
-            "and b.end < current_timestamp " +
-            "order by b.start desc ")
-    List<Booking> findAllWithStatePastForOwner(Long userId, Status status, Pageable pageable);
-
     @Query("select count(b) > 0 " +
             "from Booking b " +
             "where b.booker.id = ?1 and b.item.id = ?2 and b.status in ?3 and b.end < current_timestamp ")
     Boolean existsApprovedBookingByBookerAndItemBeforeNow(Long userId, Long itemId, List<Status> status);
 
-    @Query("select b from Booking b " +
-            "where b.item.id = ?1 " +
-            "and b.status = 'APPROVED'" +
-            "and b.start > current_timestamp " +
-            "order by b.start asc ")
-    Optional<Booking> findFirstNextBooking(Long itemId);
-
-    @Query("select b from Booking b " +
-            "where b.item.id = ?1 " +
-            "and b.status = 'APPROVED'" +
-            "and b.end < current_timestamp " +
-            "order by b.end desc ")
-    Optional<Booking> findFirstLastBooking(Long itemId);
+    @Query(value = "SELECT t.id AS id, t.start_date AS startDate, t.end_date AS endDate, " +
+            "t.item_id AS itemId, t.booker_id AS bookerId, t.status AS status " +
+            "FROM (SELECT b.*, ROW_NUMBER() OVER (PARTITION BY b.item_id ORDER BY b.end_date DESC) AS rn " +
+            "FROM bookings AS b " +
+            "WHERE b.item_id IN (?1) AND b.status = 'APPROVED' AND b.end_date < ?2) AS t " +
+            "WHERE t.rn = 1", nativeQuery = true)
+    List<BookingShortInfoView> findLastBookingsByItemIds(Collection<Long> itemIds, LocalDateTime now);
+
+    @Query(value = "SELECT t.id AS id, t.start_date AS startDate, t.end_date AS endDate, " +
+            "t.item_id AS itemId, t.booker_id AS bookerId, t.status AS status " +
+            "FROM (SELECT b.*, ROW_NUMBER() OVER (PARTITION BY b.item_id ORDER BY b.start_date ASC) AS rn " +
+            "FROM bookings AS b " +
+            "WHERE b.item_id IN (?1) AND b.status = 'APPROVED' AND b.start_date > ?2) AS t " +
+            "WHERE t.rn = 1", nativeQuery = true)
+    List<BookingShortInfoView> findNextBookingsByItemIds(Collection<Long> itemIds, LocalDateTime now);
+
+    @Query("select b.item.id as itemId, min(b.end) as endDate " +
+            "from Booking b " +
+            "where b.item.id in ?1 and b.status = 'APPROVED' and b.end >= ?2 " +
+            "group by b.item.id ")
+    List<BookingEndView> findNearestEndsByItemIds(Collection<Long> itemIds, LocalDateTime now);
+
+    @Query("select count(b) > 0 " +
+            "from Booking b " +
+            "where b.item.id = ?1 and b.status in ?4 and b.start < ?3 and b.end > ?2 ")
+    Boolean existsOverlappingBooking(Long itemId, LocalDateTime start, LocalDateTime end, Collection<Status> status);
+
+    @Query("select count(b) > 0 " +
+            "from Booking b " +
+            "where b.item.id = ?1 and b.status in ?4 and b.start < ?3 and b.end > ?2 and b.id <> ?5 ")
+    Boolean existsOverlappingBookingExcept(Long itemId, LocalDateTime start, LocalDateTime end,
+                                           Collection<Status> status, Long bookingId);
+
+    @Query("select b.item.id as itemId, b.start as start, b.end as end " +
+            "from Booking b " +
+            "where b.item.id in ?1 and b.status in ?2 and b.start < ?4 and b.end > ?3 ")
+    List<BookingItemPeriodView> findPeriodsByItemIds(Collection<Long> itemIds, Collection<Status> status,
+                                                     LocalDateTime from, LocalDateTime to);
+
+    List<BookingPeriodView> findAllByItemIdAndStatusInAndEndAfterOrderByStartAsc(Long itemId,
+                                                                                   Collection<Status> status,
+                                                                                   LocalDateTime end);
 }
@@ -0,0 +1,18 @@
+package ru.practicum.shareit.booking;
+
+import org.springframework.data.domain.Pageable;
+import ru.practicum.shareit.booking.dto.BookingPrintView;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+public interface BookingSearchRepository {
+
+    List<BookingPrintView> search(BookingFilter filter, Pageable pageable);
+
+    /**
+     * Вся выборка в том же порядке, строки читаются с сервера порциями по fetchSize.
+     * Поток нужно закрыть, и читать его можно только внутри транзакции.
+     */
+    Stream<BookingPrintView> stream(BookingFilter filter, int fetchSize);
+}
@@ -0,0 +1,141 @@
+package ru.practicum.shareit.booking;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.jpa.QueryHints;
+import org.springframework.data.domain.Pageable;
+import ru.practicum.shareit.booking.dto.BookingPrintView;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.enums.Status;
+import ru.practicum.shareit.item.model.Item;
+
+import javax.persistence.EntityManager;
+import javax.persistence.TypedQuery;
+import javax.persistence.criteria.*;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * Единый запрос списков бронирований для арендатора и владельца.
+ * Все значения, включая текущее время, привязываются параметрами, поэтому для каждого
+ * набора условий получается один и тот же текст SQL, а порядок (start desc, id desc)
+ * совпадает с индексами bookings_index_booker_* и bookings_index_owner_*.
+ */
+@RequiredArgsConstructor
+public class BookingSearchRepositoryImpl implements BookingSearchRepository {
+
+    private final EntityManager em;
+
+    @Override
+    public List<BookingPrintView> search(BookingFilter filter, Pageable pageable) {
+        TypedQuery<Row> query = createQuery(filter)
+                .setFirstResult((int) pageable.getOffset())
+                .setMaxResults(pageable.getPageSize());
+        return new ArrayList<>(query.getResultList());
+    }
+
+    /**
+     * Строки — проекции, а не сущности, поэтому они не копятся в контексте персистентности
+     * и память не растет с размером выборки.
+     */
+    @Override
+    public Stream<BookingPrintView> stream(BookingFilter filter, int fetchSize) {
+        return createQuery(filter)
+                .setHint(QueryHints.HINT_FETCH_SIZE, fetchSize)
+                .getResultStream()
+                .map(BookingPrintView.class::cast);
+    }
+
+    private TypedQuery<Row> createQuery(BookingFilter filter) {
+        CriteriaBuilder cb = em.getCriteriaBuilder();
+        CriteriaQuery<Row> query = cb.createQuery(Row.class);
+        Root<Booking> booking = query.from(Booking.class);
+        Join<Booking, Item> item = booking.join("item");
+        Path<LocalDateTime> start = booking.get("start");
+        Path<LocalDateTime> end = booking.get("end");
+        Path<Long> id = booking.get("id");
+
+        List<Predicate> where = new ArrayList<>();
+        Map<ParameterExpression<?>, Object> parameters = new HashMap<>();
+        Path<Long> user = filter.getRole() == BookingFilter.Role.OWNER
+                ? booking.get("ownerId")
+                : booking.get("booker").get("id");
+        where.add(cb.equal(user, parameter(cb, parameters, Long.class, filter.getUserId())));
+        if (!filter.getStatuses().isEmpty()) {
+            Path<Status> status = booking.get("status");
+            where.add(status.in(parameter(cb, parameters, Collection.class, filter.getStatuses())));
+        }
+        if (filter.getStartAfter() != null)
+            where.add(cb.greaterThan(start, parameter(cb, parameters, LocalDateTime.class, filter.getStartAfter())));
+        if (filter.getStartUntil() != null)
+            where.add(cb.lessThanOrEqualTo(start,
+                    parameter(cb, parameters, LocalDateTime.class, filter.getStartUntil())));
+        if (filter.getEndAfter() != null)
+            where.add(cb.greaterThan(end, parameter(cb, parameters, LocalDateTime.class, filter.getEndAfter())));
+        if (filter.getEndBefore() != null)
+            where.add(cb.lessThan(end, parameter(cb, parameters, LocalDateTime.class, filter.getEndBefore())));
+        if (filter.getCursor() != null) {
+            ParameterExpression<LocalDateTime> cursorStart =
+                    parameter(cb, parameters, LocalDateTime.class, filter.getCursor().getStart());
+            ParameterExpression<Long> cursorId = parameter(cb, parameters, Long.class, filter.getCursor().getId());
+            where.add(cb.lessThanOrEqualTo(start, cursorStart));
+            where.add(cb.or(cb.lessThan(start, cursorStart),
+                    cb.and(cb.equal(start, cursorStart), cb.lessThan(id, cursorId))));
+        }
+
+        query.select(cb.construct(Row.class, id, start, end, booking.get("status"), item.get("id"),
+                        item.get("name"), booking.get("booker").get("id")))
+                .where(where.toArray(Predicate[]::new))
+                .orderBy(cb.desc(start), cb.desc(id));
+
+        TypedQuery<Row> typedQuery = em.createQuery(query);
+        parameters.forEach((parameter, value) -> bind(typedQuery, parameter, value));
+        return typedQuery;
+    }
+
+    private static <T> ParameterExpression<T> parameter(CriteriaBuilder cb, Map<ParameterExpression<?>, Object> parameters,
+                                                        Class<T> type, Object value) {
+        ParameterExpression<T> parameter = cb.parameter(type);
+        parameters.put(parameter, value);
+        return parameter;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> void bind(TypedQuery<?> query, ParameterExpression<T> parameter, Object value) {
+        query.setParameter(parameter, (T) value);
+    }
+
+    @Getter
+    public static class Row implements BookingPrintView {
+
+        private final Long id;
+
+        private final LocalDateTime startDate;
+
+        private final LocalDateTime endDate;
+
+        private final Status status;
+
+        private final Long itemId;
+
+        private final String itemName;
+
+        private final Long bookerId;
+
+        public Row(Long id, LocalDateTime startDate, LocalDateTime endDate, Status status, Long itemId,
+                   String itemName, Long bookerId) {
+            this.id = id;
+            this.startDate = startDate;
+            this.endDate = endDate;
+            this.status = status;
+            this.itemId = itemId;
+            this.itemName = itemName;
+            this.bookerId = bookerId;
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package ru.practicum.shareit.booking;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import ru.practicum.shareit.booking.model.ItemBookingSummary;
+
+import javax.persistence.LockModeType;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+public interface ItemBookingSummaryRepository extends JpaRepository<ItemBookingSummary, Long> {
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    Optional<ItemBookingSummary> findForUpdateByItemId(Long itemId);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    List<ItemBookingSummary> findAllByValidUntilLessThanEqual(LocalDateTime now, Pageable pageable);
+
+    @Query("select i.id from Item i " +
+            "where not exists (select s.itemId from ItemBookingSummary s where s.itemId = i.id) ")
+    List<Long> findItemIdsWithoutSummary(Pageable pageable);
+
+    @Modifying
+    @Query("update ItemBookingSummary s set s.validUntil = ?2 " +
+            "where s.last.bookerId = ?1 or s.next.bookerId = ?1 ")
+    int expireByBookerId(Long bookerId, LocalDateTime now);
+}
@@ -0,0 +1,22 @@
+package ru.practicum.shareit.booking.dto;
+
+import lombok.Builder;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * Результат одной записи пакета: созданная бронь или причина отказа.
+ * index — позиция записи в запросе.
+ */
+@Getter
+@ToString
+@Builder
+public class BookingBatchResultDto {
+
+
+    private final Integer index;
+
+    private final BookingPrintDto booking;
+
+    private final String error;
+}
@@ -0,0 +1,11 @@
+package ru.practicum.shareit.booking.dto;
+
+import java.time.LocalDateTime;
+
+public interface BookingEndView {
+
+
+    Long getItemId();
+
+    LocalDateTime getEndDate();
+}
@@ -1,13 +1,13 @@
 package ru.practicum.shareit.booking.dto;
 
+import lombok.AllArgsConstructor;
 import lombok.Builder;
+import lombok.EqualsAndHashCode;
 import lombok.Getter;
 import lombok.Setter;
 import lombok.ToString;
 import ru.practicum.shareit.enums.Status;
-import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.markerinterface.Create;
-import ru.practicum.shareit.user.User;
 
 import javax.validation.constraints.FutureOrPresent;
 import javax.validation.constraints.NotNull;
@@ -31,13 +31,34 @@ public class BookingPrintDto {
     private LocalDateTime end;
 
     @NotNull
-    private Item item;
+    private ItemInfo item;
 
     @NotNull
-    private User booker;
+    private BookerInfo booker;
 
     @NotNull
     private Status status;
 
+    /**
+     * Вместо сущности Item отдается только то, что нужно списку бронирований.
+     */
+    @Getter
+    @ToString
+    @EqualsAndHashCode
+    @AllArgsConstructor
+    public static class ItemInfo {
 
-}
\ No newline at end of file
+        private final Long id;
+
+        private final String name;
+    }
+
+    @Getter
+    @ToString
+    @EqualsAndHashCode
+    @AllArgsConstructor
+    public static class BookerInfo {
+
+        private final Long id;
+    }
+}
@@ -0,0 +1,23 @@
+package ru.practicum.shareit.booking.dto;
+
+import ru.practicum.shareit.enums.Status;
+
+import java.time.LocalDateTime;
+
+public interface BookingPrintView {
+
+
+    Long getId();
+
+    LocalDateTime getStartDate();
+
+    LocalDateTime getEndDate();
+
+    Status getStatus();
+
+    Long getItemId();
+
+    String getItemName();
+
+    Long getBookerId();
+}
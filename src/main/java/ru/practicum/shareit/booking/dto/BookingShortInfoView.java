@@ -0,0 +1,21 @@
+package ru.practicum.shareit.booking.dto;
+
+import ru.practicum.shareit.enums.Status;
+
+import java.time.LocalDateTime;
+
+public interface BookingShortInfoView {
+
+
+    Long getId();
+
+    LocalDateTime getStartDate();
+
+    LocalDateTime getEndDate();
+
+    Long getItemId();
+
+    Long getBookerId();
+
+    Status getStatus();
+}
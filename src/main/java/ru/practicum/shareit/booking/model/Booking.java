@@ -17,10 +17,17 @@ import java.time.LocalDateTime;
 @Entity
 @AllArgsConstructor
 @Table(name = "bookings")
+@NamedEntityGraph(name = Booking.WITH_ITEM, attributeNodes = @NamedAttributeNode("item"))
 public class Booking {
 
+    /**
+     * Бронь вместе с вещью: этого хватает для проверки прав и ответа, владелец и арендатор нужны только по id.
+     */
+    public static final String WITH_ITEM = "Booking.item";
+
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "bookings_seq")
+    @SequenceGenerator(name = "bookings_seq", sequenceName = "bookings_seq", allocationSize = 50)
     private Long id;
 
     @Column(name = "start_date", nullable = false)
@@ -29,11 +36,11 @@ public class Booking {
     @Column(name = "end_date", nullable = false)
     private LocalDateTime end;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "item_id", nullable = false)
     private Item item;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "booker_id", nullable = false)
     private User booker;
 
@@ -41,9 +48,21 @@ public class Booking {
     @Enumerated(value = EnumType.STRING)
     private Status status;
 
+    /**
+     * Копия item.owner.id, чтобы запросы владельца не соединяли bookings с items.
+     */
+    @Column(name = "owner_id", nullable = false)
+    private Long ownerId;
+
     public Booking() {
     }
 
+    @PrePersist
+    void fillOwnerId() {
+        if (ownerId == null)
+            ownerId = item.getOwner().getId();
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
@@ -0,0 +1,41 @@
+package ru.practicum.shareit.booking.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+import ru.practicum.shareit.booking.dto.BookingShortInfoView;
+
+import javax.persistence.Column;
+import javax.persistence.Embeddable;
+import java.time.LocalDateTime;
+
+/**
+ * Копия подтвержденной брони в item_booking_summary.
+ */
+@Getter
+@ToString
+@Embeddable
+@NoArgsConstructor
+@AllArgsConstructor
+public class BookingSnapshot {
+
+    @Column(name = "booking_id")
+    private Long id;
+
+    @Column(name = "start_date")
+    private LocalDateTime start;
+
+    @Column(name = "end_date")
+    private LocalDateTime end;
+
+    @Column(name = "booker_id")
+    private Long bookerId;
+
+    public static BookingSnapshot of(BookingShortInfoView booking) {
+        if (booking == null)
+            return null;
+        return new BookingSnapshot(booking.getId(), booking.getStartDate(), booking.getEndDate(),
+                booking.getBookerId());
+    }
+}
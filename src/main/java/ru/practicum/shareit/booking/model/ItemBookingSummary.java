@@ -0,0 +1,85 @@
+package ru.practicum.shareit.booking.model;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+import org.springframework.data.domain.Persistable;
+
+import javax.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * Последняя и ближайшая подтвержденные брони вещи. Строка верна до validUntil: окончания брони,
+ * которая идет сейчас, или начала следующей. validUntil == null означает, что без новых подтверждений
+ * строка не устареет.
+ */
+@Getter
+@ToString
+@Entity
+@NoArgsConstructor
+@Table(name = "item_booking_summary")
+public class ItemBookingSummary implements Persistable<Long> {
+
+    @Id
+    @Column(name = "item_id")
+    private Long itemId;
+
+    @Embedded
+    @AttributeOverrides({
+            @AttributeOverride(name = "id", column = @Column(name = "last_booking_id")),
+            @AttributeOverride(name = "start", column = @Column(name = "last_start_date")),
+            @AttributeOverride(name = "end", column = @Column(name = "last_end_date")),
+            @AttributeOverride(name = "bookerId", column = @Column(name = "last_booker_id"))
+    })
+    private BookingSnapshot last;
+
+    @Embedded
+    @AttributeOverrides({
+            @AttributeOverride(name = "id", column = @Column(name = "next_booking_id")),
+            @AttributeOverride(name = "start", column = @Column(name = "next_start_date")),
+            @AttributeOverride(name = "end", column = @Column(name = "next_end_date")),
+            @AttributeOverride(name = "bookerId", column = @Column(name = "next_booker_id"))
+    })
+    private BookingSnapshot next;
+
+    @Column(name = "valid_until")
+    private LocalDateTime validUntil;
+
+    @Transient
+    private boolean persisted;
+
+    public ItemBookingSummary(Long itemId) {
+        this.itemId = itemId;
+    }
+
+    /**
+     * @param nearestEnd самое раннее окончание среди подтвержденных броней, которые еще не закончились
+     */
+    public void update(BookingSnapshot last, BookingSnapshot next, LocalDateTime nearestEnd) {
+        this.last = last;
+        this.next = next;
+        this.validUntil = nearestEnd;
+        if (next != null && (validUntil == null || next.getStart().isBefore(validUntil)))
+            validUntil = next.getStart();
+    }
+
+    public boolean isValidAt(LocalDateTime now) {
+        return validUntil == null || validUntil.isAfter(now);
+    }
+
+    @Override
+    public Long getId() {
+        return itemId;
+    }
+
+    @Override
+    public boolean isNew() {
+        return !persisted;
+    }
+
+    @PostLoad
+    @PostPersist
+    void markPersisted() {
+        persisted = true;
+    }
+}
@@ -1,19 +1,33 @@
 package ru.practicum.shareit.booking.service;
 
+import ru.practicum.shareit.booking.BookingCursor;
+import ru.practicum.shareit.booking.dto.BookingBatchResultDto;
 import ru.practicum.shareit.booking.dto.BookingCreateDto;
 import ru.practicum.shareit.booking.dto.BookingPrintDto;
+import ru.practicum.shareit.enums.State;
 
 import java.util.List;
+import java.util.function.Consumer;
 
 public interface BookingService {
 
     BookingPrintDto create(Long userId, BookingCreateDto bookingCreateDto);
 
+    List<BookingBatchResultDto> createAll(Long userId, List<BookingCreateDto> bookingCreateDtos);
+
     BookingPrintDto approve(Long userId, Long bookingId, Boolean approved);
 
     BookingPrintDto findById(Long userId, Long bookingId);
 
-    List<BookingPrintDto> findAllByState(Long userId, String state, Integer from, Integer size);
+    List<BookingPrintDto> findAllByState(Long userId, State state, Integer from, Integer size);
+
+    List<BookingPrintDto> findAllByStateForOwner(Long userId, State state, Integer from, Integer size);
+
+    List<BookingPrintDto> findAllByStateAfter(Long userId, State state, BookingCursor cursor, Integer size);
+
+    List<BookingPrintDto> findAllByStateForOwnerAfter(Long userId, State state, BookingCursor cursor, Integer size);
+
+    void exportAllByState(Long userId, State state, Consumer<BookingPrintDto> action);
 
-    List<BookingPrintDto> findAllByStateForOwner(Long userId, String state, Integer from, Integer size);
+    void exportAllByStateForOwner(Long userId, State state, Consumer<BookingPrintDto> action);
 }
@@ -2,26 +2,48 @@ package ru.practicum.shareit.booking.service;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.BookingCalendar;
+import ru.practicum.shareit.booking.BookingCursor;
+import ru.practicum.shareit.booking.BookingFilter;
 import ru.practicum.shareit.booking.BookingMapper;
 import ru.practicum.shareit.booking.BookingRepository;
+import ru.practicum.shareit.booking.dto.BookingBatchResultDto;
 import ru.practicum.shareit.booking.dto.BookingCreateDto;
 import ru.practicum.shareit.booking.dto.BookingPrintDto;
+import ru.practicum.shareit.booking.dto.BookingPrintView;
 import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.enums.State;
 import ru.practicum.shareit.enums.Status;
 import ru.practicum.shareit.exceptions.*;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.ItemRepository;
 import ru.practicum.shareit.user.User;
-import ru.practicum.shareit.user.UserRepository;
+import ru.practicum.shareit.user.UserCache;
+import ru.practicum.shareit.user.UserMapper;
 import ru.practicum.shareit.utility.FromSizeRequest;
 
+import java.sql.SQLException;
+import java.time.Clock;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
-
-import static ru.practicum.shareit.enums.State.*;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 
 @Slf4j
@@ -30,18 +52,37 @@ import static ru.practicum.shareit.enums.State.*;
 @RequiredArgsConstructor
 public class BookingServiceImpl implements BookingService {
 
+    private static final int EXPORT_FETCH_SIZE = 1000;
+
+    private static final int MAX_BATCH_SIZE = 1000;
+
+    private static final String OVERLAP_CONSTRAINT = "ex_bookings_item_period";
+
+    private static final String EXCLUSION_VIOLATION = "23P01";
+
     private final BookingRepository bookingRepository;
 
-    private final UserRepository userRepository;
+    private final UserCache userCache;
 
     private final ItemRepository itemRepository;
 
+    private final ItemBookingSummaryService itemBookingSummaryService;
+
+    private final Clock clock;
+
 
+    /**
+     * Пересечение проверяется запросом до вставки. Гонку двух одновременных броней ловит ограничение
+     * ex_bookings_item_period в PostgreSQL: его нарушение тоже превращается в BookingOverlapException.
+     * На H2 и в базе, где BookingOverlapConstraintCheck сообщил, что ограничение не создано, защищает
+     * только предварительная проверка, и одновременные пересекающиеся брони могут сохраниться обе.
+     */
     @Transactional
     @Override
     public BookingPrintDto create(Long bookerId, BookingCreateDto bookingDto) {
-        if (!userRepository.existsById(bookerId))
-            throw new UserNotFoundException("Пользователя с таким id не существует");
+        User booker = userCache.findById(bookerId)
+                .map(UserMapper::toUser)
+                .orElseThrow(() -> new UserNotFoundException("Пользователя с таким id не существует"));
         dateTimeCheck(bookingDto.getStart(), bookingDto.getEnd());
 
         Long itemId = bookingDto.getItemId();
@@ -51,16 +92,38 @@ public class BookingServiceImpl implements BookingService {
                 ));
         if (item.getOwner().getId().equals(bookerId))
             throw new BookingAccessException("Владелец не может создать бронь на свою вещь");
-        User booker = userRepository.findById(bookerId)
-                .orElseThrow(() -> new UserNotFoundException("User с идентификатором " + bookerId + " не найден."));
 
         if (!item.getAvailable())
             throw new AccessErrorForItemException("Вещь с указанным id недоступна для запроса на бронирование.");
+        if (bookingRepository.existsOverlappingBooking(itemId, bookingDto.getStart(), bookingDto.getEnd(),
+                BookingCalendar.BLOCKING_STATUSES))
+            throw new BookingOverlapException("Вещь уже забронирована на указанный период");
         bookingDto.setStatus(Status.WAITING);
-        Booking resBooking = bookingRepository.save(BookingMapper.toBooking(bookingDto, item, booker));
-        return BookingMapper.toBookingPrintDto(bookingRepository.findById(resBooking.getId())
-                .orElseThrow(() -> new BookingNotFoundException(
-                        "Booking с идентификатором " + resBooking.getId() + " не найден.")));
+        Booking resBooking;
+        try {
+            resBooking = bookingRepository.save(BookingMapper.toBooking(bookingDto, item, booker));
+            bookingRepository.flush();
+        } catch (DataIntegrityViolationException e) {
+            if (isOverlapViolation(e))
+                throw new BookingOverlapException("Вещь уже забронирована на указанный период");
+            throw e;
+        }
+        return BookingMapper.toBookingPrintDto(resBooking);
+    }
+
+    /**
+     * Только нарушение ограничения исключения (SQLState 23P01) означает пересечение броней. Остальные
+     * нарушения целостности, например внешнего ключа при удалении вещи, пробрасываются как есть.
+     */
+    private static boolean isOverlapViolation(DataIntegrityViolationException e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof ConstraintViolationException
+                    && OVERLAP_CONSTRAINT.equalsIgnoreCase(((ConstraintViolationException) cause).getConstraintName()))
+                return true;
+            if (cause instanceof SQLException && EXCLUSION_VIOLATION.equals(((SQLException) cause).getSQLState()))
+                return true;
+        }
+        return false;
     }
 
     private static void dateTimeCheck(LocalDateTime start, LocalDateTime end) {
@@ -68,17 +131,109 @@ public class BookingServiceImpl implements BookingService {
             throw new DateTimeException("StartTime не может быть после EndTime или равняться ему");
     }
 
+    /**
+     * Пакет проверяется целиком: пользователь один раз, вещи одним findAllById, занятость всех вещей
+     * одним запросом в календари, которые пополняются принятыми записями пакета. Принятые записи
+     * вставляются JDBC-пакетами, отклоненные возвращаются с причиной.
+     */
+    @Transactional
+    @Override
+    public List<BookingBatchResultDto> createAll(Long bookerId, List<BookingCreateDto> bookingDtos) {
+        if (bookingDtos.isEmpty() || bookingDtos.size() > MAX_BATCH_SIZE)
+            throw new BatchSizeException("Пакет должен содержать от 1 до " + MAX_BATCH_SIZE + " бронирований");
+        User booker = userCache.findById(bookerId)
+                .map(UserMapper::toUser)
+                .orElseThrow(() -> new UserNotFoundException("Пользователя с таким id не существует"));
+        LocalDateTime now = LocalDateTime.now(clock);
+
+        Set<Long> itemIds = bookingDtos.stream()
+                .map(BookingCreateDto::getItemId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        Map<Long, Item> items = itemRepository.findAllById(itemIds).stream()
+                .collect(Collectors.toMap(Item::getId, Function.identity()));
+        Map<Long, BookingCalendar> calendars = findCalendars(items.keySet(), bookingDtos);
+
+        Map<Integer, Booking> created = new LinkedHashMap<>();
+        Map<Integer, String> rejected = new HashMap<>();
+        for (int i = 0; i < bookingDtos.size(); i++) {
+            BookingCreateDto bookingDto = bookingDtos.get(i);
+            String error = checkBatchEntry(bookingDto, bookerId, items, calendars, now);
+            if (error != null) {
+                rejected.put(i, error);
+                continue;
+            }
+            calendars.get(bookingDto.getItemId()).add(bookingDto.getStart(), bookingDto.getEnd());
+            bookingDto.setId(null);
+            bookingDto.setStatus(Status.WAITING);
+            created.put(i, BookingMapper.toBooking(bookingDto, items.get(bookingDto.getItemId()), booker));
+        }
+
+        try {
+            bookingRepository.saveAll(created.values());
+            bookingRepository.flush();
+        } catch (DataIntegrityViolationException e) {
+            if (isOverlapViolation(e))
+                throw new BookingOverlapException("Вещь уже забронирована на указанный период");
+            throw e;
+        }
+        List<BookingBatchResultDto> results = new ArrayList<>(bookingDtos.size());
+        for (int i = 0; i < bookingDtos.size(); i++) {
+            Booking booking = created.get(i);
+            results.add(BookingBatchResultDto.builder()
+                    .index(i)
+                    .booking(booking == null ? null : BookingMapper.toBookingPrintDto(booking))
+                    .error(rejected.get(i))
+                    .build());
+        }
+        return results;
+    }
+
+    private Map<Long, BookingCalendar> findCalendars(Set<Long> itemIds, List<BookingCreateDto> bookingDtos) {
+        Map<Long, BookingCalendar> calendars = new HashMap<>();
+        itemIds.forEach(itemId -> calendars.put(itemId, new BookingCalendar()));
+        Optional<LocalDateTime> from = bookingDtos.stream()
+                .map(BookingCreateDto::getStart)
+                .filter(Objects::nonNull)
+                .min(Comparator.naturalOrder());
+        Optional<LocalDateTime> to = bookingDtos.stream()
+                .map(BookingCreateDto::getEnd)
+                .filter(Objects::nonNull)
+                .max(Comparator.naturalOrder());
+        if (itemIds.isEmpty() || from.isEmpty() || to.isEmpty())
+            return calendars;
+        bookingRepository.findPeriodsByItemIds(itemIds, BookingCalendar.BLOCKING_STATUSES, from.get(), to.get())
+                .forEach(period -> calendars.get(period.getItemId()).add(period.getStart(), period.getEnd()));
+        return calendars;
+    }
+
+    private static String checkBatchEntry(BookingCreateDto bookingDto, Long bookerId, Map<Long, Item> items,
+                                          Map<Long, BookingCalendar> calendars, LocalDateTime now) {
+        if (bookingDto.getItemId() == null || bookingDto.getStart() == null || bookingDto.getEnd() == null)
+            return "Нужно указать itemId, start и end";
+        if (bookingDto.getStart().isBefore(now))
+            return "StartTime не может быть в прошлом";
+        if (!bookingDto.getStart().isBefore(bookingDto.getEnd()))
+            return "StartTime не может быть после EndTime или равняться ему";
+        Item item = items.get(bookingDto.getItemId());
+        if (item == null)
+            return "Item с идентификатором " + bookingDto.getItemId() + " не найден.";
+        if (item.getOwner().getId().equals(bookerId))
+            return "Владелец не может создать бронь на свою вещь";
+        if (!item.getAvailable())
+            return "Вещь с указанным id недоступна для запроса на бронирование.";
+        if (!calendars.get(item.getId()).isFree(bookingDto.getStart(), bookingDto.getEnd()))
+            return "Вещь уже забронирована на указанный период";
+        return null;
+    }
+
     @Transactional
     @Override
     public BookingPrintDto approve(Long userId, Long bookingId, Boolean approved) {
-        if (!userRepository.existsById(userId))
+        if (userCache.findById(userId).isEmpty())
             throw new UserNotFoundException("Пользователя с таким id не существует");
-        if (!bookingRepository.existsById(bookingId))
-            throw new BookingNotFoundException("Брони с таким id не существует");
-        Booking booking = bookingRepository.findById(bookingId)
-                .orElseThrow(() -> new BookingNotFoundException(
-                        "Booking с идентификатором " + bookingId + " не найден."
-                ));
+        Booking booking = bookingRepository.findWithItemById(bookingId)
+                .orElseThrow(() -> new BookingNotFoundException("Брони с таким id не существует"));
 
         Item item = booking.getItem();
         if (!item.getOwner().getId().equals(userId))
@@ -88,102 +243,98 @@ public class BookingServiceImpl implements BookingService {
             throw new AlreadyExistsStatusException("Статус уже подтвержден");
 
         if (approved) {
+            if (bookingRepository.existsOverlappingBookingExcept(item.getId(), booking.getStart(), booking.getEnd(),
+                    List.of(Status.APPROVED), bookingId))
+                throw new BookingOverlapException("Вещь уже забронирована на указанный период");
             booking.setStatus(Status.APPROVED);
             booking.setItem(item);
         } else
             booking.setStatus(Status.REJECTED);
 
-        bookingRepository.save(booking);
+        try {
+            bookingRepository.save(booking);
+            bookingRepository.flush();
+        } catch (DataIntegrityViolationException e) {
+            if (isOverlapViolation(e))
+                throw new BookingOverlapException("Вещь уже забронирована на указанный период");
+            throw e;
+        }
+        if (approved)
+            itemBookingSummaryService.refresh(item.getId());
         return BookingMapper.toBookingPrintDto(booking);
     }
 
 
     @Override
     public BookingPrintDto findById(Long userId, Long bookingId) {
-        if (!userRepository.existsById(userId))
+        if (userCache.findById(userId).isEmpty())
             throw new UserNotFoundException("Пользователя с таким id не существует");
-        if (!bookingRepository.existsById(bookingId))
-            throw new BookingNotFoundException("Брони с таким id не существует");
-
-        Booking booking = bookingRepository.findById(bookingId)
-                .orElseThrow(() -> new BookingNotFoundException(
-                        "Booking с идентификатором " + bookingId + " не найден."));
+        Booking booking = bookingRepository.findWithItemById(bookingId)
+                .orElseThrow(() -> new BookingNotFoundException("Брони с таким id не существует"));
         Item item = booking.getItem();
         if (!item.getOwner().getId().equals(userId) && !booking.getBooker().getId().equals(userId))
             throw new UserAccessException("Данный пользователь не может получить информацию о заданной вещи.");
 
-        return BookingMapper.toBookingPrintDto(bookingRepository.findById(bookingId)
-                .orElseThrow(() ->
-                        new BookingNotFoundException("Booking с идентификатором " + bookingId + " не найден.")));
+        return BookingMapper.toBookingPrintDto(booking);
     }
 
 
     @Override
-    public List<BookingPrintDto> findAllByState(Long userId, String state, Integer from, Integer size) {
-        if (!userRepository.existsById(userId))
-            throw new UserNotFoundException("Пользователя с таким id не существует");
-        Pageable pageable = FromSizeRequest.of(from, size);
-
-        if (state.equals(ALL.getSTATE())) {
-            return BookingMapper.toBookingPrintDtoList(bookingRepository.findAllByBookerIdOrderByStartDesc(userId, pageable));
-        } else if (state.equals(CURRENT.getSTATE())) {
-            return BookingMapper.toBookingPrintDtoList(
-                    bookingRepository.findAllWithStateCurrent(userId,
-                            List.of(Status.APPROVED, Status.WAITING, Status.REJECTED), pageable)
-            );
-        } else if (state.equals(PAST.getSTATE())) {
-            return BookingMapper.toBookingPrintDtoList(
-                    bookingRepository.findAllWithStatePast(userId, Status.APPROVED, pageable)
-            );
-        } else if (state.equals(FUTURE.getSTATE())) {
-            return BookingMapper.toBookingPrintDtoList(
-                    bookingRepository.findAllWithStateFuture(userId,  List.of(Status.APPROVED, Status.WAITING), pageable)
-            );
-        } else if (state.equals(WAITING.getSTATE())) {
-            return BookingMapper.toBookingPrintDtoList(
-                    bookingRepository.findAllByBookerIdAndStatusOrderByStartDesc(userId, Status.WAITING, pageable)
-            );
-        } else if (state.equals(REJECTED.getSTATE())) {
-            return BookingMapper.toBookingPrintDtoList(
-                    bookingRepository.findAllByBookerIdAndStatusOrderByStartDesc(userId, Status.REJECTED, pageable)
-            );
-        } else
-            throw new UnsupportedStateException("Unknown state: " + state);
+    public List<BookingPrintDto> findAllByState(Long userId, State state, Integer from, Integer size) {
+        return search(BookingFilter.Role.BOOKER, userId, state, null, FromSizeRequest.of(from, size));
+    }
+
+
+    @Override
+    public List<BookingPrintDto> findAllByStateForOwner(Long userId, State state, Integer from, Integer size) {
+        return search(BookingFilter.Role.OWNER, userId, state, null, FromSizeRequest.of(from, size));
     }
 
 
     @Override
-    public List<BookingPrintDto> findAllByStateForOwner(Long userId, String state, Integer from, Integer size) {
-        if (!userRepository.existsById(userId))
+    public List<BookingPrintDto> findAllByStateAfter(Long userId, State state, BookingCursor cursor, Integer size) {
+        return search(BookingFilter.Role.BOOKER, userId, state, cursor, PageRequest.of(0, size));
+    }
+
+
+    @Override
+    public List<BookingPrintDto> findAllByStateForOwnerAfter(Long userId, State state, BookingCursor cursor,
+                                                             Integer size) {
+        return search(BookingFilter.Role.OWNER, userId, state, cursor, PageRequest.of(0, size));
+    }
+
+    @Override
+    public void exportAllByState(Long userId, State state, Consumer<BookingPrintDto> action) {
+        export(BookingFilter.Role.BOOKER, userId, state, action);
+    }
+
+
+    @Override
+    public void exportAllByStateForOwner(Long userId, State state, Consumer<BookingPrintDto> action) {
+        export(BookingFilter.Role.OWNER, userId, state, action);
+    }
+
+    private List<BookingPrintDto> search(BookingFilter.Role role, Long userId, State state, BookingCursor cursor,
+                                         Pageable pageable) {
+        BookingFilter filter = filter(role, userId, state, cursor);
+        return BookingMapper.toBookingPrintDtoList(bookingRepository.search(filter, pageable));
+    }
+
+    private void export(BookingFilter.Role role, Long userId, State state, Consumer<BookingPrintDto> action) {
+        BookingFilter filter = filter(role, userId, state, null);
+        try (Stream<BookingPrintView> bookings = bookingRepository.stream(filter, EXPORT_FETCH_SIZE)) {
+            bookings.map(BookingMapper::toBookingPrintDto).forEach(action);
+        }
+    }
+
+    private BookingFilter filter(BookingFilter.Role role, Long userId, State state, BookingCursor cursor) {
+        if (userCache.findById(userId).isEmpty())
             throw new UserNotFoundException("Пользователя с таким id не существует");
-        Pageable pageable = FromSizeRequest.of(from, size);
-
-
-        if (state.equals(ALL.getSTATE())) {
-            return BookingMapper.toBookingPrintDtoList(bookingRepository.findAllForOwner(userId, pageable));
-        } else if (state.equals(CURRENT.getSTATE())) {
-            return BookingMapper.toBookingPrintDtoList(
-                    bookingRepository.findAllWithStateCurrentForOwner(userId,
-                            List.of(Status.APPROVED, Status.WAITING, Status.REJECTED), pageable)
-            );
-        } else if (state.equals(PAST.getSTATE())) {
-            return BookingMapper.toBookingPrintDtoList(
-                    bookingRepository.findAllWithStatePastForOwner(userId, Status.APPROVED, pageable)
-            );
-        } else if (state.equals(FUTURE.getSTATE())) {
-            return BookingMapper.toBookingPrintDtoList(
-                    bookingRepository.findAllWithStateFutureForOwner(userId, List.of(Status.APPROVED, Status.WAITING), pageable)
-            );
-        } else if (state.equals(WAITING.getSTATE())) {
-            return BookingMapper.toBookingPrintDtoList(
-                    bookingRepository.findAllForOwnerByStatus(userId, Status.WAITING, pageable)
-            );
-        } else if (state.equals(REJECTED.getSTATE())) {
-            return BookingMapper.toBookingPrintDtoList(
-                    bookingRepository.findAllForOwnerByStatus(userId, Status.REJECTED, pageable)
-            );
-        } else
-            throw new UnsupportedStateException("Unknown state: " + state);
+        BookingFilter.BookingFilterBuilder filter = BookingFilter.builder()
+                .role(role)
+                .userId(userId)
+                .cursor(cursor);
+        return BookingStateFilters.apply(state, filter, LocalDateTime.now(clock)).build();
     }
 
 
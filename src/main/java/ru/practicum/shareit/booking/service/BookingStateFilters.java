@@ -0,0 +1,57 @@
+package ru.practicum.shareit.booking.service;
+
+import ru.practicum.shareit.booking.BookingFilter;
+import ru.practicum.shareit.enums.State;
+import ru.practicum.shareit.enums.Status;
+
+import java.time.LocalDateTime;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Условия BookingFilter для каждого State. Наборы статусов общие и создаются один раз,
+ * текущее время передается снаружи.
+ */
+final class BookingStateFilters {
+
+    private static final List<Status> CURRENT_STATUSES = List.of(Status.APPROVED, Status.WAITING, Status.REJECTED);
+
+    private static final List<Status> PAST_STATUSES = List.of(Status.APPROVED);
+
+    private static final List<Status> FUTURE_STATUSES = List.of(Status.APPROVED, Status.WAITING);
+
+    private static final List<Status> WAITING_STATUSES = List.of(Status.WAITING);
+
+    private static final List<Status> REJECTED_STATUSES = List.of(Status.REJECTED);
+
+    private static final Map<State, StateCondition> CONDITIONS = complete(new EnumMap<>(Map.<State, StateCondition>of(
+            State.ALL, (filter, now) -> filter,
+            State.CURRENT, (filter, now) -> filter.statuses(CURRENT_STATUSES).startUntil(now).endAfter(now),
+            State.PAST, (filter, now) -> filter.statuses(PAST_STATUSES).startUntil(now).endBefore(now),
+            State.FUTURE, (filter, now) -> filter.statuses(FUTURE_STATUSES).startAfter(now),
+            State.WAITING, (filter, now) -> filter.statuses(WAITING_STATUSES),
+            State.REJECTED, (filter, now) -> filter.statuses(REJECTED_STATUSES))));
+
+    private BookingStateFilters() {
+    }
+
+    static BookingFilter.BookingFilterBuilder apply(State state, BookingFilter.BookingFilterBuilder filter,
+                                                    LocalDateTime now) {
+        return CONDITIONS.get(state).apply(filter, now);
+    }
+
+    private static Map<State, StateCondition> complete(EnumMap<State, StateCondition> conditions) {
+        for (State state : State.values()) {
+            if (!conditions.containsKey(state))
+                throw new IllegalStateException("Нет условия выборки бронирований для состояния " + state);
+        }
+        return conditions;
+    }
+
+    @FunctionalInterface
+    private interface StateCondition {
+
+        BookingFilter.BookingFilterBuilder apply(BookingFilter.BookingFilterBuilder filter, LocalDateTime now);
+    }
+}
@@ -0,0 +1,39 @@
+package ru.practicum.shareit.booking.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Пересчитывает строки item_booking_summary, у которых наступил validUntil, и создает строки
+ * для вещей, добавленных до появления таблицы. Отключается свойством shareit.booking-summary.refresh.enabled.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "shareit.booking-summary.refresh.enabled", havingValue = "true", matchIfMissing = true)
+public class ItemBookingSummaryRefresher {
+
+    private final ItemBookingSummaryService summaryService;
+
+    private final int batchSize;
+
+    public ItemBookingSummaryRefresher(ItemBookingSummaryService summaryService,
+                                       @Value("${shareit.booking-summary.refresh.batch-size:500}") int batchSize) {
+        this.summaryService = summaryService;
+        this.batchSize = batchSize;
+    }
+
+    @Scheduled(fixedDelayString = "${shareit.booking-summary.refresh.delay-ms:60000}")
+    public void refreshStale() {
+        int total = 0;
+        int refreshed;
+        do {
+            refreshed = summaryService.refreshStale(batchSize);
+            total += refreshed;
+        } while (refreshed >= batchSize);
+        if (total > 0)
+            log.debug("Пересчитано {} строк item_booking_summary", total);
+    }
+}
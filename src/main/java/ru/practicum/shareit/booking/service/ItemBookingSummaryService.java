@@ -0,0 +1,128 @@
+package ru.practicum.shareit.booking.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.BookingRepository;
+import ru.practicum.shareit.booking.ItemBookingSummaryRepository;
+import ru.practicum.shareit.booking.dto.BookingEndView;
+import ru.practicum.shareit.booking.dto.BookingShortInfoView;
+import ru.practicum.shareit.booking.model.BookingSnapshot;
+import ru.practicum.shareit.booking.model.ItemBookingSummary;
+
+import java.time.Clock;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Последняя и ближайшая брони вещей из item_booking_summary. Строка пересчитывается при подтверждении
+ * брони и планировщиком, когда наступает ее validUntil. Пока строки нет или она устарела,
+ * значения вычисляются по bookings без записи.
+ */
+@Service
+@Transactional(readOnly = true)
+@RequiredArgsConstructor
+public class ItemBookingSummaryService {
+
+    private final ItemBookingSummaryRepository summaryRepository;
+
+    private final BookingRepository bookingRepository;
+
+    private final Clock clock;
+
+
+    public Map<Long, ItemBookingSummary> findAllByItemIds(Collection<Long> itemIds) {
+        LocalDateTime now = LocalDateTime.now(clock);
+        Map<Long, ItemBookingSummary> summaries = new HashMap<>();
+        for (ItemBookingSummary summary : summaryRepository.findAllById(itemIds)) {
+            if (summary.isValidAt(now))
+                summaries.put(summary.getItemId(), summary);
+        }
+        List<ItemBookingSummary> computed = itemIds.stream()
+                .filter(itemId -> !summaries.containsKey(itemId))
+                .map(ItemBookingSummary::new)
+                .collect(Collectors.toList());
+        if (!computed.isEmpty()) {
+            update(computed, now);
+            computed.forEach(summary -> summaries.put(summary.getItemId(), summary));
+        }
+        return summaries;
+    }
+
+    /**
+     * Пустая строка для новой вещи: у нее нет броней, и строка не устареет до первого подтверждения.
+     */
+    @Transactional
+    public void create(Long itemId) {
+        summaryRepository.save(new ItemBookingSummary(itemId));
+    }
+
+    @Transactional
+    public void createAll(Collection<Long> itemIds) {
+        summaryRepository.saveAll(itemIds.stream()
+                .map(ItemBookingSummary::new)
+                .collect(Collectors.toList()));
+    }
+
+    /**
+     * Пересчитывает строку вещи под блокировкой, чтобы параллельные подтверждения и планировщик
+     * не перезаписали друг друга. Вещи без строки дозаполняет планировщик.
+     */
+    @Transactional
+    public void refresh(Long itemId) {
+        summaryRepository.findForUpdateByItemId(itemId)
+                .ifPresent(summary -> update(List.of(summary), LocalDateTime.now(clock)));
+    }
+
+    /**
+     * Пересчитывает до batchSize устаревших строк и создает до batchSize недостающих.
+     *
+     * @return количество обработанных строк
+     */
+    @Transactional
+    public int refreshStale(int batchSize) {
+        LocalDateTime now = LocalDateTime.now(clock);
+        Pageable pageable = PageRequest.of(0, batchSize);
+        List<ItemBookingSummary> summaries = new ArrayList<>(
+                summaryRepository.findAllByValidUntilLessThanEqual(now, pageable));
+        summaryRepository.findItemIdsWithoutSummary(pageable)
+                .forEach(itemId -> summaries.add(new ItemBookingSummary(itemId)));
+        if (summaries.isEmpty())
+            return 0;
+        update(summaries, now);
+        summaryRepository.saveAll(summaries);
+        return summaries.size();
+    }
+
+    /**
+     * Брони удаляются вместе с арендатором, поэтому строки, где он указан, помечаются устаревшими.
+     */
+    @Transactional
+    public void expireByBookerId(Long bookerId) {
+        summaryRepository.expireByBookerId(bookerId, LocalDateTime.now(clock));
+    }
+
+    private void update(Collection<ItemBookingSummary> summaries, LocalDateTime now) {
+        List<Long> itemIds = summaries.stream()
+                .map(ItemBookingSummary::getItemId)
+                .collect(Collectors.toList());
+        Map<Long, BookingShortInfoView> lastBookings = bookingRepository.findLastBookingsByItemIds(itemIds, now)
+                .stream()
+                .collect(Collectors.toMap(BookingShortInfoView::getItemId, Function.identity()));
+        Map<Long, BookingShortInfoView> nextBookings = bookingRepository.findNextBookingsByItemIds(itemIds, now)
+                .stream()
+                .collect(Collectors.toMap(BookingShortInfoView::getItemId, Function.identity()));
+        Map<Long, LocalDateTime> nearestEnds = bookingRepository.findNearestEndsByItemIds(itemIds, now)
+                .stream()
+                .collect(Collectors.toMap(BookingEndView::getItemId, BookingEndView::getEndDate));
+        for (ItemBookingSummary summary : summaries) {
+            Long itemId = summary.getItemId();
+            summary.update(BookingSnapshot.of(lastBookings.get(itemId)), BookingSnapshot.of(nextBookings.get(itemId)),
+                    nearestEnds.get(itemId));
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package ru.practicum.shareit.concurrency;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.lang.reflect.InvocationTargetException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Режим shareit.threads.virtual.enabled: Tomcat обрабатывает каждый запрос в своем виртуальном потоке
+ * вместо пула из server.tomcat.threads.max потоков, а к HikariCP одновременно обращается не больше
+ * потоков, чем в нем соединений (BoundedDataSource).
+ * <p>
+ * Виртуальные потоки есть только в Java 21+, а проект собирается под Java 11, поэтому исполнитель
+ * создается через отражение. На более старой JVM приложение с включенным режимом не запустится.
+ * <p>
+ * Ожидание внутри synchronized закрепляет виртуальный поток за потоком-носителем. Поэтому в pom.xml подняты
+ * версии драйвера PostgreSQL (до 42.6 запрос выполнялся под монитором QueryExecutorImpl) и Tomcat (9.0.65
+ * обрабатывал весь запрос под монитором SocketProcessorBase). Библиотека, которая ждет ввода-вывода внутри
+ * synchronized, снова сведет режим к пулу из числа ядер; проверка — -Djdk.tracePinnedThreads=short.
+ */
+@Configuration
+@ConditionalOnProperty(name = "shareit.threads.virtual.enabled", havingValue = "true")
+public class VirtualThreadConfig {
+
+    @Bean(destroyMethod = "shutdown")
+    public ExecutorService virtualThreadExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (NoSuchMethodException | InvocationTargetException e) {
+            throw new IllegalStateException("Виртуальные потоки требуют Java 21+, текущая версия "
+                    + Runtime.version(), e);
+        } catch (IllegalAccessException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @Bean
+    public TomcatProtocolHandlerCustomizer<?> virtualThreadProtocolHandlerCustomizer(
+            ExecutorService virtualThreadExecutor) {
+        return protocolHandler -> protocolHandler.setExecutor(virtualThreadExecutor);
+    }
+
+    @Bean
+    public static BeanPostProcessor boundedDataSourcePostProcessor() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof HikariDataSource) {
+                    HikariDataSource dataSource = (HikariDataSource) bean;
+                    return new BoundedDataSource(dataSource, dataSource.getMaximumPoolSize(),
+                            dataSource.getConnectionTimeout());
+                }
+                return bean;
+            }
+        };
+    }
+}
@@ -1,5 +1,7 @@
 package ru.practicum.shareit.enums;
 
+import ru.practicum.shareit.exceptions.UnsupportedStateException;
+
 public enum State {
     PAST("PAST"),
     REJECTED("REJECTED"),
@@ -17,4 +19,12 @@ public enum State {
     public String getSTATE() {
         return state;
     }
+
+    public static State from(String state) {
+        try {
+            return valueOf(state);
+        } catch (IllegalArgumentException e) {
+            throw new UnsupportedStateException("Unknown state: " + state);
+        }
+    }
 }
@@ -0,0 +1,8 @@
+package ru.practicum.shareit.exceptions;
+
+public class BatchSizeException extends RuntimeException {
+
+    public BatchSizeException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,8 @@
+package ru.practicum.shareit.exceptions;
+
+public class ImportFormatException extends RuntimeException {
+
+    public ImportFormatException(String message) {
+        super(message);
+    }
+}
@@ -1,22 +1,43 @@
 package ru.practicum.shareit.item.controller;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.MappingIterator;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 import ru.practicum.shareit.exceptions.EmptyRequestParameterException;
+import ru.practicum.shareit.exceptions.ImportFormatException;
 import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.ItemAvailabilityDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.ItemFullPrintDto;
+import ru.practicum.shareit.item.dto.ItemImportProgressDto;
+import ru.practicum.shareit.item.service.ItemImportService;
 import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.item.utility.ItemCsvReader;
 import ru.practicum.shareit.markerinterface.Create;
 import ru.practicum.shareit.markerinterface.Update;
 
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
 import javax.validation.constraints.Positive;
 import javax.validation.constraints.PositiveOrZero;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Iterator;
 
 @RestController
 @RequestMapping("/items")
@@ -26,6 +47,10 @@ public class ItemController {
 
     private final ItemService itemService;
 
+    private final ItemImportService itemImportService;
+
+    private final ObjectMapper objectMapper;
+
     @PostMapping
     @ResponseStatus(HttpStatus.CREATED)
     public ItemDto create(@RequestHeader(value = "X-Sharer-User-Id") Long userId,
@@ -39,6 +64,27 @@ public class ItemController {
 
     }
 
+    @PostMapping(value = "/import", consumes = {MediaType.APPLICATION_JSON_VALUE, ItemCsvReader.MEDIA_TYPE},
+            produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public void importAll(@RequestHeader(value = "X-Sharer-User-Id") Long userId,
+                          HttpServletRequest request,
+                          HttpServletResponse response) throws IOException {
+        log.info("Import items by owner ownerId={}", userId);
+        MediaType contentType = MediaType.parseMediaType(request.getContentType());
+        Iterator<ItemDto> items = MediaType.APPLICATION_JSON.isCompatibleWith(contentType)
+                ? readJson(request)
+                : readCsv(request, contentType);
+        response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        JsonGenerator generator = objectMapper.getFactory().createGenerator(response.getOutputStream());
+        generator.setRootValueSeparator(null);
+        try {
+            itemImportService.importAll(userId, items, progress -> write(generator, progress));
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
     @PostMapping("/{itemId}/comment")
     @ResponseStatus(HttpStatus.OK)
     public CommentDto createComment(@RequestHeader(value = "X-Sharer-User-Id") Long userId,
@@ -48,6 +94,19 @@ public class ItemController {
         return itemService.createComment(userId, itemId, commentDto);
     }
 
+    /**
+     * 202 означает, что комментарий проверен и принят в очередь, но еще не записан: при аварийной остановке
+     * или ошибке записи он теряется. Надежная запись — POST /items/{itemId}/comment.
+     */
+    @PostMapping("/{itemId}/comment/async")
+    @ResponseStatus(HttpStatus.ACCEPTED)
+    public CommentDto createCommentAsync(@RequestHeader(value = "X-Sharer-User-Id") Long userId,
+                                         @PathVariable(value = "itemId") Long itemId,
+                                         @Validated(Create.class) @RequestBody CommentDto commentDto) {
+        log.info("Queue comment for item with id={} by user with id={}", itemId, userId);
+        return itemService.createCommentAsync(userId, itemId, commentDto);
+    }
+
     @PatchMapping("/{itemId}")
     @ResponseStatus(HttpStatus.OK)
     public ItemDto update(@RequestHeader(value = "X-Sharer-User-Id") Long userId,
@@ -65,6 +124,17 @@ public class ItemController {
         return itemService.findById(userId, itemId);
     }
 
+    @GetMapping("/{itemId}/availability")
+    @ResponseStatus(HttpStatus.OK)
+    public ItemAvailabilityDto findAvailability(
+            @RequestHeader(value = "X-Sharer-User-Id") Long userId,
+            @PathVariable(value = "itemId") Long itemId,
+            @RequestParam(value = "start") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime start,
+            @RequestParam(value = "end") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime end) {
+        log.info("User userId={} get availability of item itemId={} from {} to {}", userId, itemId, start, end);
+        return itemService.findAvailability(userId, itemId, start, end);
+    }
+
     @GetMapping
     @ResponseStatus(HttpStatus.OK)
     public Collection<ItemFullPrintDto> findAll(
@@ -94,4 +164,46 @@ public class ItemController {
         log.info("Delete item id={}", id);
         itemService.deleteById(id);
     }
+
+    private Iterator<ItemDto> readJson(HttpServletRequest request) throws IOException {
+        MappingIterator<ItemDto> values = objectMapper.readerFor(ItemDto.class).readValues(request.getInputStream());
+        return new Iterator<>() {
+            @Override
+            public boolean hasNext() {
+                try {
+                    return values.hasNextValue();
+                } catch (JsonProcessingException e) {
+                    throw new ImportFormatException("Некорректный JSON: " + e.getOriginalMessage());
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+
+            @Override
+            public ItemDto next() {
+                try {
+                    return values.nextValue();
+                } catch (JsonProcessingException e) {
+                    throw new ImportFormatException("Некорректный JSON: " + e.getOriginalMessage());
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+        };
+    }
+
+    private static Iterator<ItemDto> readCsv(HttpServletRequest request, MediaType contentType) throws IOException {
+        Charset charset = contentType.getCharset() != null ? contentType.getCharset() : StandardCharsets.UTF_8;
+        return new ItemCsvReader(new BufferedReader(new InputStreamReader(request.getInputStream(), charset)));
+    }
+
+    private void write(JsonGenerator generator, ItemImportProgressDto progress) {
+        try {
+            objectMapper.writeValue(generator, progress);
+            generator.writeRaw('\n');
+            generator.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
 }
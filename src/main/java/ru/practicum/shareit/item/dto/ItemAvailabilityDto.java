@@ -0,0 +1,25 @@
+package ru.practicum.shareit.item.dto;
+
+import lombok.Builder;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.ToString;
+
+import java.time.LocalDateTime;
+
+@Getter
+@Setter
+@ToString
+@Builder
+public class ItemAvailabilityDto {
+
+    private Long itemId;
+
+    private LocalDateTime start;
+
+    private LocalDateTime end;
+
+    private Boolean free;
+
+    private LocalDateTime nextFreeStart;
+}
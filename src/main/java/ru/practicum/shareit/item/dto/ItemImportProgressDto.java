@@ -0,0 +1,39 @@
+package ru.practicum.shareit.item.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.util.List;
+
+/**
+ * Состояние импорта после очередной части: сколько записей прочитано и сохранено с начала импорта
+ * и какие записи этой части отклонены. Последняя строка ответа имеет finished = true.
+ */
+@Getter
+@ToString
+@Builder
+public class ItemImportProgressDto {
+
+    private final Integer processed;
+
+    private final Integer imported;
+
+    private final List<Rejected> rejected;
+
+    private final Boolean finished;
+
+    /**
+     * index — позиция записи во входных данных, начиная с 0.
+     */
+    @Getter
+    @ToString
+    @AllArgsConstructor
+    public static class Rejected {
+
+        private final Integer index;
+
+        private final String error;
+    }
+}
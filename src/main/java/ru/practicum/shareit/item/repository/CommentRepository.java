@@ -1,9 +1,11 @@
 package ru.practicum.shareit.item.repository;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import ru.practicum.shareit.item.dto.CommentPrintView;
 import ru.practicum.shareit.item.model.Comment;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -23,4 +25,15 @@ public interface CommentRepository extends JpaRepository<Comment, Long> {
 
     List<CommentPrintView> findFirst10ByItemIdOrderByCreatedDesc(Long itemId);
 
+    @Query(value = "SELECT t.id AS id, t.text AS text, t.item_id AS itemId, " +
+            "t.author_name AS authorName, t.created AS created " +
+            "FROM (SELECT c.id, c.text, c.item_id, u.name AS author_name, c.created, " +
+            "ROW_NUMBER() OVER (PARTITION BY c.item_id ORDER BY c.created DESC) AS rn " +
+            "FROM comments AS c " +
+            "JOIN users AS u ON u.id = c.author_id " +
+            "WHERE c.item_id IN (?1)) AS t " +
+            "WHERE t.rn <= 10 " +
+            "ORDER BY t.item_id, t.created DESC", nativeQuery = true)
+    List<CommentPrintView> findFirst10ForEachItemByItemIds(Collection<Long> itemIds);
+
 }
@@ -3,8 +3,10 @@ package ru.practicum.shareit.item.repository;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import ru.practicum.shareit.item.dto.ItemSearchView;
 import ru.practicum.shareit.item.model.Item;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -26,7 +28,8 @@ public interface ItemRepository extends JpaRepository<Item, Long> {
             "from Item i " +
             "where i.available = true " +
             "and (lower(i.name) like concat('%', lower(?1), '%') " +
-            "or lower(i.description) like concat('%', lower(?1), '%')) ")
+            "or lower(i.description) like concat('%', lower(?1), '%')) " +
+            "order by case when lower(i.name) like concat('%', lower(?1), '%') then 0 else 1 end, i.id")
     List<Item> itemSearch(String text, Pageable pageable);
 
     List<Item> findAllByOwnerIdOrderByIdAsc(Long id, Pageable pageable);
@@ -35,4 +38,12 @@ public interface ItemRepository extends JpaRepository<Item, Long> {
     Optional<Item> findById(Long id);
 
     List<Item> findAllByRequestId(Long requestId);
+
+    List<Item> findAllByRequestIdInOrderByIdAsc(Collection<Long> requestIds);
+
+    @Query("select i.id as id, i.name as name, i.description as description, i.available as available, " +
+            "i.owner.id as ownerId, i.requestId as requestId " +
+            "from Item i " +
+            "order by i.id")
+    List<ItemSearchView> findAllForSearchIndex();
 }
@@ -0,0 +1,272 @@
+package ru.practicum.shareit.item.search;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemSearchView;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+
+import javax.annotation.PostConstruct;
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Инвертированный индекс по триграммам названия и описания вещей.
+ * Сохраняет семантику ItemRepository.itemSearch: поиск подстроки без учёта регистра,
+ * сначала совпадения по названию, затем по описанию, внутри групп по возрастанию id.
+ * Включается свойством shareit.search.in-memory-index.enabled.
+ */
+@Slf4j
+@Component
+public class ItemSearchIndex {
+
+    private static final int GRAM = 3;
+
+    private final ItemRepository itemRepository;
+
+    private final boolean enabled;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final Map<String, PostingList> postings = new HashMap<>();
+
+    private final Map<Long, Document> documents = new HashMap<>();
+
+    private PostingList allIds = new PostingList();
+
+    public ItemSearchIndex(ItemRepository itemRepository,
+                           @Value("${shareit.search.in-memory-index.enabled:false}") boolean enabled) {
+        this.itemRepository = itemRepository;
+        this.enabled = enabled;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    @PostConstruct
+    public void rebuild() {
+        if (!enabled)
+            return;
+        List<ItemSearchView> items = itemRepository.findAllForSearchIndex();
+        lock.writeLock().lock();
+        try {
+            postings.clear();
+            documents.clear();
+            allIds = new PostingList();
+            for (ItemSearchView item : items)
+                put(new Document(item.getId(), item.getName(), item.getDescription(), item.getAvailable(),
+                        item.getOwnerId(), item.getRequestId()));
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("Item search index built for {} items", items.size());
+    }
+
+    public void index(Item item) {
+        if (!enabled)
+            return;
+        Document document = new Document(item.getId(), item.getName(), item.getDescription(), item.getAvailable(),
+                item.getOwner().getId(), item.getRequestId());
+        afterCommit(() -> {
+            lock.writeLock().lock();
+            try {
+                delete(document.id);
+                put(document);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        });
+    }
+
+    public void indexAll(Collection<Item> items) {
+        if (!enabled)
+            return;
+        List<Document> batch = new ArrayList<>(items.size());
+        for (Item item : items)
+            batch.add(new Document(item.getId(), item.getName(), item.getDescription(), item.getAvailable(),
+                    item.getOwner().getId(), item.getRequestId()));
+        afterCommit(() -> {
+            lock.writeLock().lock();
+            try {
+                for (Document document : batch) {
+                    delete(document.id);
+                    put(document);
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+        });
+    }
+
+    public void remove(Long itemId) {
+        if (!enabled)
+            return;
+        afterCommit(() -> {
+            lock.writeLock().lock();
+            try {
+                delete(itemId);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        });
+    }
+
+    public void removeAllByOwnerId(Long ownerId) {
+        if (!enabled)
+            return;
+        afterCommit(() -> {
+            lock.writeLock().lock();
+            try {
+                long[] ids = allIds.toArray();
+                for (long id : ids) {
+                    if (documents.get(id).ownerId.equals(ownerId))
+                        delete(id);
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+        });
+    }
+
+    public List<ItemDto> search(String text, int from, int size) {
+        String query = text.toLowerCase(Locale.ROOT);
+        lock.readLock().lock();
+        try {
+            long[] candidates = findCandidates(query);
+            List<Document> byName = new ArrayList<>();
+            List<Document> byDescription = new ArrayList<>();
+            for (long id : candidates) {
+                Document document = documents.get(id);
+                if (!document.available)
+                    continue;
+                if (document.lowerName.contains(query))
+                    byName.add(document);
+                else if (document.lowerDescription.contains(query))
+                    byDescription.add(document);
+            }
+
+            List<ItemDto> result = new ArrayList<>(size);
+            int total = byName.size() + byDescription.size();
+            for (int i = from; i < total && result.size() < size; i++) {
+                Document document = i < byName.size() ? byName.get(i) : byDescription.get(i - byName.size());
+                result.add(document.toItemDto());
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private long[] findCandidates(String query) {
+        if (query.length() < GRAM)
+            return allIds.toArray();
+
+        Set<String> grams = grams(query);
+        List<PostingList> lists = new ArrayList<>(grams.size());
+        for (String gram : grams) {
+            PostingList list = postings.get(gram);
+            if (list == null)
+                return new long[0];
+            lists.add(list);
+        }
+        lists.sort(Comparator.comparingInt(PostingList::size));
+
+        long[] candidates = lists.get(0).toArray();
+        int count = candidates.length;
+        for (int i = 1; i < lists.size() && count > 0; i++)
+            count = lists.get(i).retainAll(candidates, count);
+        return Arrays.copyOf(candidates, count);
+    }
+
+    private void put(Document document) {
+        documents.put(document.id, document);
+        allIds.add(document.id);
+        for (String gram : document.grams())
+            postings.computeIfAbsent(gram, key -> new PostingList()).add(document.id);
+    }
+
+    private void delete(long id) {
+        Document document = documents.remove(id);
+        if (document == null)
+            return;
+        allIds.remove(id);
+        for (String gram : document.grams()) {
+            PostingList list = postings.get(gram);
+            list.remove(id);
+            if (list.isEmpty())
+                postings.remove(gram);
+        }
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    private static Set<String> grams(String text) {
+        Set<String> grams = new HashSet<>();
+        for (int i = 0; i + GRAM <= text.length(); i++)
+            grams.add(text.substring(i, i + GRAM));
+        return grams;
+    }
+
+    private static final class Document {
+
+        private final long id;
+
+        private final String name;
+
+        private final String description;
+
+        private final String lowerName;
+
+        private final String lowerDescription;
+
+        private final boolean available;
+
+        private final Long ownerId;
+
+        private final Long requestId;
+
+        private Document(Long id, String name, String description, Boolean available, Long ownerId, Long requestId) {
+            this.id = id;
+            this.name = name;
+            this.description = description;
+            this.lowerName = name.toLowerCase(Locale.ROOT);
+            this.lowerDescription = description.toLowerCase(Locale.ROOT);
+            this.available = available;
+            this.ownerId = ownerId;
+            this.requestId = requestId;
+        }
+
+        private Set<String> grams() {
+            Set<String> grams = ItemSearchIndex.grams(lowerName);
+            grams.addAll(ItemSearchIndex.grams(lowerDescription));
+            return grams;
+        }
+
+        private ItemDto toItemDto() {
+            return ItemDto.builder()
+                    .id(id)
+                    .name(name)
+                    .description(description)
+                    .available(available)
+                    .requestId(requestId)
+                    .build();
+        }
+    }
+}
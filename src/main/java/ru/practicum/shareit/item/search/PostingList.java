@@ -0,0 +1,78 @@
+package ru.practicum.shareit.item.search;
+
+import java.util.Arrays;
+
+/**
+ * Отсортированный по возрастанию список идентификаторов вещей на примитивном массиве.
+ */
+class PostingList {
+
+    private static final int INITIAL_CAPACITY = 4;
+
+    private long[] ids = new long[INITIAL_CAPACITY];
+
+    private int size;
+
+    int size() {
+        return size;
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    long get(int index) {
+        return ids[index];
+    }
+
+    void add(long id) {
+        if (size > 0 && ids[size - 1] < id) {
+            ensureCapacity();
+            ids[size++] = id;
+            return;
+        }
+        int position = Arrays.binarySearch(ids, 0, size, id);
+        if (position >= 0)
+            return;
+        position = -position - 1;
+        ensureCapacity();
+        System.arraycopy(ids, position, ids, position + 1, size - position);
+        ids[position] = id;
+        size++;
+    }
+
+    void remove(long id) {
+        int position = Arrays.binarySearch(ids, 0, size, id);
+        if (position < 0)
+            return;
+        System.arraycopy(ids, position + 1, ids, position, size - position - 1);
+        size--;
+    }
+
+    long[] toArray() {
+        return Arrays.copyOf(ids, size);
+    }
+
+    /**
+     * Оставляет в candidates только идентификаторы, присутствующие в этом списке.
+     *
+     * @return количество оставшихся идентификаторов в начале массива candidates
+     */
+    int retainAll(long[] candidates, int count) {
+        int kept = 0;
+        int position = 0;
+        for (int i = 0; i < count && position < size; i++) {
+            long candidate = candidates[i];
+            while (position < size && ids[position] < candidate)
+                position++;
+            if (position < size && ids[position] == candidate)
+                candidates[kept++] = candidate;
+        }
+        return kept;
+    }
+
+    private void ensureCapacity() {
+        if (size == ids.length)
+            ids = Arrays.copyOf(ids, size * 2);
+    }
+}
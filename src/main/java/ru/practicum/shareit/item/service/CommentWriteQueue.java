@@ -0,0 +1,138 @@
+package ru.practicum.shareit.item.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.item.model.Comment;
+
+import javax.annotation.PreDestroy;
+import javax.persistence.EntityManager;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * Очередь проверенных комментариев для асинхронной записи. Id выдается сразу из последовательности
+ * comments_seq, сами строки вставляются JDBC-пакетами по batchSize. Если очередь заполнена,
+ * комментарий записывается сразу в транзакции вызывающего.
+ * <p>
+ * Доставка не более одного раза: очередь живет только в памяти процесса, поэтому при аварийной остановке
+ * незаписанные комментарии теряются. Комментарий, который не удалось записать и по одному (например, вещь
+ * уже удалена), отбрасывается. Размер очереди — метрика shareit.comments.async.pending, отброшенные
+ * комментарии — счетчик shareit.comments.async.dropped.
+ */
+@Slf4j
+@Component
+public class CommentWriteQueue {
+
+    private static final String INSERT = "INSERT INTO comments (id, text, item_id, author_id, created) " +
+            "VALUES (?, ?, ?, ?, ?)";
+
+    private final EntityManager em;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final BlockingQueue<Comment> queue;
+
+    private final int batchSize;
+
+    private final Counter dropped;
+
+    public CommentWriteQueue(EntityManager em, JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate,
+                             MeterRegistry meterRegistry,
+                             @Value("${shareit.comments.async.capacity:10000}") int capacity,
+                             @Value("${shareit.comments.async.batch-size:100}") int batchSize) {
+        this.em = em;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.queue = new ArrayBlockingQueue<>(capacity);
+        this.batchSize = batchSize;
+        Gauge.builder("shareit.comments.async.pending", queue, BlockingQueue::size)
+                .description("Принятые комментарии, еще не записанные в базу")
+                .register(meterRegistry);
+        this.dropped = Counter.builder("shareit.comments.async.dropped")
+                .description("Принятые комментарии, которые не удалось записать")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Должен вызываться внутри транзакции: id берется генератором сущности Comment.
+     */
+    public Comment submit(Comment comment) {
+        SharedSessionContractImplementor session = em.unwrap(SharedSessionContractImplementor.class);
+        comment.setId((Long) session.getFactory()
+                .getIdentifierGenerator(Comment.class.getName())
+                .generate(session, comment));
+        if (!queue.offer(comment)) {
+            log.debug("Очередь комментариев заполнена, комментарий id={} записывается сразу", comment.getId());
+            insert(List.of(comment));
+        }
+        return comment;
+    }
+
+    public int size() {
+        return queue.size();
+    }
+
+    /**
+     * Записывает все комментарии, накопленные к моменту вызова.
+     *
+     * @return количество записанных комментариев
+     */
+    public int flush() {
+        int written = 0;
+        List<Comment> batch = new ArrayList<>(batchSize);
+        while (queue.drainTo(batch, batchSize) > 0) {
+            written += write(batch);
+            batch.clear();
+        }
+        return written;
+    }
+
+    @PreDestroy
+    void close() {
+        flush();
+    }
+
+    private int write(List<Comment> batch) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> insert(batch));
+            return batch.size();
+        } catch (DataAccessException e) {
+            log.warn("Пакет из {} комментариев не записан, запись по одному: {}", batch.size(), e.getMessage());
+        }
+        int written = 0;
+        for (Comment comment : batch) {
+            try {
+                transactionTemplate.executeWithoutResult(status -> insert(List.of(comment)));
+                written++;
+            } catch (DataAccessException e) {
+                dropped.increment();
+                log.warn("Комментарий id={} к вещи id={} не записан: {}", comment.getId(), comment.getItemId(),
+                        e.getMessage());
+            }
+        }
+        return written;
+    }
+
+    private void insert(List<Comment> comments) {
+        jdbcTemplate.batchUpdate(INSERT, comments, comments.size(), (ps, comment) -> {
+            ps.setLong(1, comment.getId());
+            ps.setString(2, comment.getText());
+            ps.setLong(3, comment.getItemId());
+            ps.setLong(4, comment.getAuthor().getId());
+            ps.setTimestamp(5, Timestamp.valueOf(comment.getCreated()));
+        });
+    }
+}
@@ -0,0 +1,26 @@
+package ru.practicum.shareit.item.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Периодически записывает очередь комментариев. Отключается свойством shareit.comments.async.flush.enabled.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "shareit.comments.async.flush.enabled", havingValue = "true", matchIfMissing = true)
+public class CommentWriteQueueFlusher {
+
+    private final CommentWriteQueue commentWriteQueue;
+
+    @Scheduled(fixedDelayString = "${shareit.comments.async.flush.delay-ms:200}")
+    public void flush() {
+        int written = commentWriteQueue.flush();
+        if (written > 0)
+            log.debug("Записано {} комментариев из очереди", written);
+    }
+}
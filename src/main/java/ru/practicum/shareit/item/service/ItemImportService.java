@@ -0,0 +1,167 @@
+package ru.practicum.shareit.item.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.booking.service.ItemBookingSummaryService;
+import ru.practicum.shareit.exceptions.UserNotFoundException;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemImportProgressDto;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.search.ItemSearchIndex;
+import ru.practicum.shareit.item.utility.ItemMapper;
+import ru.practicum.shareit.request.ItemRequestRepository;
+import ru.practicum.shareit.user.User;
+import ru.practicum.shareit.user.UserCache;
+import ru.practicum.shareit.user.UserMapper;
+
+import javax.persistence.EntityManager;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+/**
+ * Импорт каталога владельца. Записи читаются частями по chunkSize, каждая часть сохраняется своей
+ * транзакцией: вещи и строки item_booking_summary вставляются JDBC-пакетами, индекс поиска
+ * обновляется одним вызовом на часть. После части контекст персистентности очищается, поэтому
+ * память не растет с размером файла. Импорт не атомарен: при ошибке уже сохраненные части остаются.
+ */
+@Slf4j
+@Service
+public class ItemImportService {
+
+    private static final int MAX_NAME_LENGTH = 128;
+
+    private static final int MAX_DESCRIPTION_LENGTH = 512;
+
+    private final ItemRepository itemRepository;
+
+    private final ItemRequestRepository itemRequestRepository;
+
+    private final UserCache userCache;
+
+    private final ItemBookingSummaryService itemBookingSummaryService;
+
+    private final ItemSearchIndex itemSearchIndex;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final EntityManager em;
+
+    private final int chunkSize;
+
+    public ItemImportService(ItemRepository itemRepository, ItemRequestRepository itemRequestRepository,
+                             UserCache userCache, ItemBookingSummaryService itemBookingSummaryService,
+                             ItemSearchIndex itemSearchIndex, TransactionTemplate transactionTemplate,
+                             EntityManager em, @Value("${shareit.items.import.chunk-size:1000}") int chunkSize) {
+        this.itemRepository = itemRepository;
+        this.itemRequestRepository = itemRequestRepository;
+        this.userCache = userCache;
+        this.itemBookingSummaryService = itemBookingSummaryService;
+        this.itemSearchIndex = itemSearchIndex;
+        this.transactionTemplate = transactionTemplate;
+        this.em = em;
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * Владелец проверяется до чтения первой записи.
+     *
+     * @param progress получает состояние после каждой части и итоговое состояние
+     * @return итоговое состояние
+     */
+    public ItemImportProgressDto importAll(Long userId, Iterator<ItemDto> items,
+                                           Consumer<ItemImportProgressDto> progress) {
+        User owner = userCache.findById(userId)
+                .map(UserMapper::toUser)
+                .orElseThrow(() -> new UserNotFoundException("Пользователя с таким id не существует"));
+        int processed = 0;
+        int imported = 0;
+        List<ItemDto> chunk = new ArrayList<>(chunkSize);
+        while (items.hasNext()) {
+            chunk.add(items.next());
+            if (chunk.size() < chunkSize && items.hasNext())
+                continue;
+            List<ItemImportProgressDto.Rejected> rejected = importChunk(owner, chunk, processed);
+            processed += chunk.size();
+            imported += chunk.size() - rejected.size();
+            chunk.clear();
+            log.debug("Импорт вещей владельца id={}: прочитано {}, сохранено {}", userId, processed, imported);
+            progress.accept(toProgress(processed, imported, rejected, false));
+        }
+        log.info("Импорт вещей владельца id={} завершен: прочитано {}, сохранено {}", userId, processed, imported);
+        ItemImportProgressDto result = toProgress(processed, imported, List.of(), true);
+        progress.accept(result);
+        return result;
+    }
+
+    private List<ItemImportProgressDto.Rejected> importChunk(User owner, List<ItemDto> chunk, int offset) {
+        return transactionTemplate.execute(status -> {
+            Set<Long> requestIds = findRequestIds(chunk);
+            List<ItemImportProgressDto.Rejected> rejected = new ArrayList<>();
+            List<Item> items = new ArrayList<>(chunk.size());
+            for (int i = 0; i < chunk.size(); i++) {
+                String error = check(chunk.get(i), requestIds);
+                if (error != null) {
+                    rejected.add(new ItemImportProgressDto.Rejected(offset + i, error));
+                    continue;
+                }
+                Item item = ItemMapper.toItem(chunk.get(i), owner);
+                item.setId(null);
+                items.add(item);
+            }
+            // Вещи и строки сводки сохраняются раздельно, чтобы каждая таблица писалась своими пакетами
+            itemRepository.saveAll(items);
+            itemBookingSummaryService.createAll(items.stream().map(Item::getId).collect(Collectors.toList()));
+            itemSearchIndex.indexAll(items);
+            em.flush();
+            em.clear();
+            return rejected;
+        });
+    }
+
+    private Set<Long> findRequestIds(List<ItemDto> chunk) {
+        Set<Long> requestIds = chunk.stream()
+                .filter(Objects::nonNull)
+                .map(ItemDto::getRequestId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        if (requestIds.isEmpty())
+            return requestIds;
+        return itemRequestRepository.findExistingIds(requestIds);
+    }
+
+    private static String check(ItemDto itemDto, Set<Long> requestIds) {
+        if (itemDto == null)
+            return "Пустая запись";
+        if (itemDto.getName() == null || itemDto.getName().isBlank())
+            return "Имя не должно быть пустым";
+        if (itemDto.getName().length() > MAX_NAME_LENGTH)
+            return "Имя не должно быть длиннее " + MAX_NAME_LENGTH + " символов";
+        if (itemDto.getDescription() == null || itemDto.getDescription().isBlank())
+            return "Описание не должно быть пустым";
+        if (itemDto.getDescription().length() > MAX_DESCRIPTION_LENGTH)
+            return "Описание не должно быть длиннее " + MAX_DESCRIPTION_LENGTH + " символов";
+        if (itemDto.getAvailable() == null)
+            return "Доступность вещи должна быть указана";
+        if (itemDto.getRequestId() != null && !requestIds.contains(itemDto.getRequestId()))
+            return "Запроса с id " + itemDto.getRequestId() + " не существует";
+        return null;
+    }
+
+    private static ItemImportProgressDto toProgress(int processed, int imported,
+                                                    List<ItemImportProgressDto.Rejected> rejected, boolean finished) {
+        return ItemImportProgressDto.builder()
+                .processed(processed)
+                .imported(imported)
+                .rejected(rejected)
+                .finished(finished)
+                .build();
+    }
+}
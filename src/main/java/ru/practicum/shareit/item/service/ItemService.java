@@ -1,9 +1,11 @@
 package ru.practicum.shareit.item.service;
 
 import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.ItemAvailabilityDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.ItemFullPrintDto;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 public interface ItemService {
@@ -21,4 +23,13 @@ public interface ItemService {
     List<ItemDto> search(String text, Integer from, Integer size);
 
     CommentDto createComment(Long userId, Long itemId, CommentDto commentDto);
+
+    /**
+     * Проверяет комментарий и ставит его в очередь на запись; id возвращается сразу.
+     * Запись не более одного раза: при аварийной остановке приложения или ошибке записи комментарий
+     * теряется (см. CommentWriteQueue). Если потеря недопустима, используйте createComment.
+     */
+    CommentDto createCommentAsync(Long userId, Long itemId, CommentDto commentDto);
+
+    ItemAvailabilityDto findAvailability(Long userId, Long itemId, LocalDateTime start, LocalDateTime end);
 }
@@ -4,30 +4,39 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.BookingCalendar;
 import ru.practicum.shareit.booking.BookingMapper;
 import ru.practicum.shareit.booking.BookingRepository;
-import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.ItemBookingSummary;
+import ru.practicum.shareit.booking.service.ItemBookingSummaryService;
 import ru.practicum.shareit.enums.Status;
 import ru.practicum.shareit.exceptions.AccessBookingException;
+import ru.practicum.shareit.exceptions.DateTimeException;
 import ru.practicum.shareit.exceptions.ItemNotFoundException;
 import ru.practicum.shareit.exceptions.OwnerAccessException;
 import ru.practicum.shareit.exceptions.UserNotFoundException;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.CommentPrintView;
+import ru.practicum.shareit.item.dto.ItemAvailabilityDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.ItemFullPrintDto;
 import ru.practicum.shareit.item.model.Comment;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.CommentRepository;
 import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.search.ItemSearchIndex;
 import ru.practicum.shareit.item.utility.CommentMapper;
 import ru.practicum.shareit.item.utility.ItemMapper;
 import ru.practicum.shareit.user.User;
-import ru.practicum.shareit.user.UserRepository;
+import ru.practicum.shareit.user.UserCache;
+import ru.practicum.shareit.user.UserMapper;
 import ru.practicum.shareit.utility.FromSizeRequest;
 
+import java.time.Duration;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 @Service
@@ -37,46 +46,67 @@ public class ItemServiceImpl implements ItemService {
 
     private final ItemRepository itemRepository;
 
-    private final UserRepository userRepository;
+    private final UserCache userCache;
 
     private final BookingRepository bookingRepository;
 
     private final CommentRepository commentRepository;
 
+    private final ItemSearchIndex itemSearchIndex;
+
+    private final ItemBookingSummaryService itemBookingSummaryService;
+
+    private final CommentWriteQueue commentWriteQueue;
+
 
     @Transactional
     @Override
     public ItemDto create(Long userId, ItemDto itemDto) {
-        if (!userRepository.existsById(userId))
-            throw new UserNotFoundException("Пользователя с таким id не существует");
-        User owner = userRepository.findById(userId)
-                .orElseThrow(() -> new UserNotFoundException("User с идентификатором " + userId + " не найден."));
+        User owner = userCache.findById(userId)
+                .map(UserMapper::toUser)
+                .orElseThrow(() -> new UserNotFoundException("Пользователя с таким id не существует"));
         Item resItem = ItemMapper.toItem(itemDto, owner);
-        Long itemId = itemRepository.save(resItem).getId();
-        return ItemMapper.toItemDto(itemRepository.findById(itemId)
-                .orElseThrow(() -> new ItemNotFoundException("Item с идентификатором " + itemId + " не найден.")));
+        itemRepository.save(resItem);
+        itemBookingSummaryService.create(resItem.getId());
+        itemSearchIndex.index(resItem);
+        return ItemMapper.toItemDto(resItem);
     }
 
 
     @Transactional
     @Override
     public CommentDto createComment(Long userId, Long itemId, CommentDto commentDto) {
-        User user = userRepository.findById(userId)
+        User user = checkCommentAuthor(userId, itemId);
+        Comment resComment = commentRepository.save(CommentMapper.toComment(commentDto, user, itemId));
+        return CommentMapper.toCommentDto(resComment);
+    }
+
+
+    @Transactional
+    @Override
+    public CommentDto createCommentAsync(Long userId, Long itemId, CommentDto commentDto) {
+        User user = checkCommentAuthor(userId, itemId);
+        Comment resComment = commentWriteQueue.submit(CommentMapper.toComment(commentDto, user, itemId));
+        return CommentMapper.toCommentDto(resComment);
+    }
+
+    private User checkCommentAuthor(Long userId, Long itemId) {
+        User user = userCache.findById(userId)
+                .map(UserMapper::toUser)
                 .orElseThrow(() -> new UserNotFoundException("User с идентификатором " + userId + " не найден."));
         if (!itemRepository.existsById(itemId))
             throw new ItemNotFoundException("Вещи с таким id не существует");
         if (!bookingRepository
                 .existsApprovedBookingByBookerAndItemBeforeNow(userId, itemId, List.of(Status.APPROVED, Status.CANCELED)))
             throw new AccessBookingException("Пользователь, который не брал в аренду вещь, не может написать комментарий");
-        Comment resComment = commentRepository.save(CommentMapper.toComment(commentDto, user, itemId));
-        return CommentMapper.toCommentDto(resComment);
+        return user;
     }
 
 
     @Transactional
     @Override
     public ItemDto update(Long ownerId, Long itemId, ItemDto itemDto) {
-        if (!userRepository.existsById(ownerId))
+        if (userCache.findById(ownerId).isEmpty())
             throw new UserNotFoundException("Пользователя с таким id не существует");
         Item item = itemRepository.findById(itemId)
                 .orElseThrow(() -> new ItemNotFoundException("Item с идентификатором " + itemId + " не найден."));
@@ -89,30 +119,27 @@ public class ItemServiceImpl implements ItemService {
             item.setDescription(itemDto.getDescription());
         if (itemDto.getAvailable() != null)
             item.setAvailable(itemDto.getAvailable());
-        item.setOwner(userRepository.findById(ownerId).orElseThrow(() ->
-                new UserNotFoundException("User с идентификатором " + ownerId + " не найден.")));
 
         itemRepository.save(item);
-        return ItemMapper.toItemDto(itemRepository.findById(itemId)
-                .orElseThrow(() -> new ItemNotFoundException("Item с идентификатором " + itemId + " не найден.")));
+        itemSearchIndex.index(item);
+        return ItemMapper.toItemDto(item);
     }
 
 
     @Override
     public ItemFullPrintDto findById(Long userId, Long itemId) {
-        if (!userRepository.existsById(userId))
+        if (userCache.findById(userId).isEmpty())
             throw new UserNotFoundException("Пользователя с таким id не существует");
         Item item = itemRepository.findById(itemId)
                 .orElseThrow(() -> new ItemNotFoundException("Item с идентификатором " + itemId + " не найден."));
         List<CommentPrintView> comments = commentRepository.findFirst10ByItemIdOrderByCreatedDesc(itemId);
 
         if (item.getOwner().getId().equals(userId)) {
-            Booking lastBooking = bookingRepository.findFirstLastBooking(itemId).orElse(null);
-            Booking nextBooking = bookingRepository.findFirstNextBooking(itemId).orElse(null);
+            ItemBookingSummary summary = itemBookingSummaryService.findAllByItemIds(List.of(itemId)).get(itemId);
             return ItemMapper.toItemFullPrintDtoForOwner(
                     item,
-                    BookingMapper.toBookingShortInfoDto(lastBooking),
-                    BookingMapper.toBookingShortInfoDto(nextBooking),
+                    BookingMapper.toBookingShortInfoDto(itemId, summary.getLast()),
+                    BookingMapper.toBookingShortInfoDto(itemId, summary.getNext()),
                     comments);
         }
         return ItemMapper.toItemFullPrintDtoForUser(item, comments);
@@ -124,38 +151,66 @@ public class ItemServiceImpl implements ItemService {
     public List<ItemFullPrintDto> findAll(Long ownerId, Integer from, Integer size) {
         Pageable pageable = FromSizeRequest.of(from, size);
         List<Item> ownerItems = itemRepository.findAllByOwnerIdOrderByIdAsc(ownerId, pageable);
-        List<ItemFullPrintDto> resItems = new ArrayList<>();
+        if (ownerItems.isEmpty())
+            return new ArrayList<>();
+
+        List<Long> itemIds = ownerItems.stream()
+                .map(Item::getId)
+                .collect(Collectors.toList());
+        Map<Long, List<CommentPrintView>> comments = commentRepository.findFirst10ForEachItemByItemIds(itemIds)
+                .stream()
+                .collect(Collectors.groupingBy(CommentPrintView::getItemId));
+        Map<Long, ItemBookingSummary> summaries = itemBookingSummaryService.findAllByItemIds(itemIds);
 
+        List<ItemFullPrintDto> resItems = new ArrayList<>();
         for (Item item : ownerItems) {
-            Booking lastBooking = null;
-            Booking nextBooking = null;
             Long itemId = item.getId();
-            List<CommentPrintView> comments = commentRepository.findFirst10ByItemIdOrderByCreatedDesc(itemId);
-
-            if (item.getOwner().getId().equals(ownerId)) {
-                lastBooking = bookingRepository.findFirstLastBooking(itemId).orElse(null);
-                nextBooking = bookingRepository.findFirstNextBooking(itemId).orElse(null);
-            }
+            ItemBookingSummary summary = summaries.get(itemId);
             resItems.add(ItemMapper.toItemFullPrintDtoForOwner(
                     item,
-                    BookingMapper.toBookingShortInfoDto(lastBooking),
-                    BookingMapper.toBookingShortInfoDto(nextBooking),
-                    comments)
+                    BookingMapper.toBookingShortInfoDto(itemId, summary.getLast()),
+                    BookingMapper.toBookingShortInfoDto(itemId, summary.getNext()),
+                    comments.getOrDefault(itemId, List.of()))
             );
         }
         return resItems;
     }
 
 
+    @Override
+    public ItemAvailabilityDto findAvailability(Long userId, Long itemId, LocalDateTime start, LocalDateTime end) {
+        if (userCache.findById(userId).isEmpty())
+            throw new UserNotFoundException("Пользователя с таким id не существует");
+        if (!start.isBefore(end))
+            throw new DateTimeException("StartTime не может быть после EndTime или равняться ему");
+        Item item = itemRepository.findById(itemId)
+                .orElseThrow(() -> new ItemNotFoundException("Item с идентификатором " + itemId + " не найден."));
+
+        BookingCalendar calendar = BookingCalendar.of(bookingRepository
+                .findAllByItemIdAndStatusInAndEndAfterOrderByStartAsc(itemId, BookingCalendar.BLOCKING_STATUSES, start));
+        boolean available = item.getAvailable();
+        return ItemAvailabilityDto.builder()
+                .itemId(itemId)
+                .start(start)
+                .end(end)
+                .free(available && calendar.isFree(start, end))
+                .nextFreeStart(available ? calendar.nextFreeStart(start, Duration.between(start, end)) : null)
+                .build();
+    }
+
+
     @Transactional
     @Override
     public void deleteById(Long id) {
         itemRepository.deleteById(id);
+        itemSearchIndex.remove(id);
     }
 
 
     @Override
     public List<ItemDto> search(String text, Integer from, Integer size) {
+        if (itemSearchIndex.isEnabled())
+            return itemSearchIndex.search(text, from, size);
         Pageable pageable = FromSizeRequest.of(from, size);
 
         return itemRepository.itemSearch(text, pageable)
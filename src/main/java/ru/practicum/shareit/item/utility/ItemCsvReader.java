@@ -0,0 +1,159 @@
+package ru.practicum.shareit.item.utility;
+
+import ru.practicum.shareit.exceptions.ImportFormatException;
+import ru.practicum.shareit.item.dto.ItemDto;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+/**
+ * Читает вещи из CSV по одной записи. Первая строка — заголовок с колонками name, description,
+ * available и необязательной requestId в любом порядке. Значение в двойных кавычках может содержать
+ * запятые и переводы строк, кавычка внутри него записывается как "".
+ */
+public class ItemCsvReader implements Iterator<ItemDto> {
+
+    public static final String MEDIA_TYPE = "text/csv";
+
+    private static final List<String> REQUIRED_COLUMNS = List.of("name", "description", "available");
+
+    private final Reader reader;
+
+    private final Map<String, Integer> columns = new HashMap<>();
+
+    private List<String> nextRecord;
+
+    private int index;
+
+    private int pending = -1;
+
+    public ItemCsvReader(Reader reader) {
+        this.reader = reader;
+        List<String> header = readRecord();
+        if (header != null) {
+            for (int i = 0; i < header.size(); i++)
+                columns.put(header.get(i).trim(), i);
+        }
+        for (String column : REQUIRED_COLUMNS) {
+            if (!columns.containsKey(column))
+                throw new ImportFormatException("В заголовке CSV нет колонки " + column);
+        }
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (nextRecord == null)
+            nextRecord = readRecord();
+        return nextRecord != null;
+    }
+
+    @Override
+    public ItemDto next() {
+        if (!hasNext())
+            throw new NoSuchElementException();
+        List<String> record = nextRecord;
+        nextRecord = null;
+        ItemDto itemDto = ItemDto.builder()
+                .name(value(record, "name"))
+                .description(value(record, "description"))
+                .available(toBoolean(value(record, "available")))
+                .requestId(toLong(value(record, "requestId")))
+                .build();
+        index++;
+        return itemDto;
+    }
+
+    private String value(List<String> record, String column) {
+        Integer position = columns.get(column);
+        if (position == null || position >= record.size())
+            return null;
+        return record.get(position);
+    }
+
+    private Boolean toBoolean(String value) {
+        if (value == null || value.isBlank())
+            return null;
+        if (value.trim().equalsIgnoreCase("true"))
+            return true;
+        if (value.trim().equalsIgnoreCase("false"))
+            return false;
+        throw new ImportFormatException("Запись " + index + ": available должно быть true или false");
+    }
+
+    private Long toLong(String value) {
+        if (value == null || value.isBlank())
+            return null;
+        try {
+            return Long.parseLong(value.trim());
+        } catch (NumberFormatException e) {
+            throw new ImportFormatException("Запись " + index + ": requestId должен быть числом");
+        }
+    }
+
+    /**
+     * Пустые строки пропускаются.
+     *
+     * @return значения полей или null, если данные закончились
+     */
+    private List<String> readRecord() {
+        List<String> record = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        boolean empty = true;
+        int c;
+        while ((c = read()) != -1) {
+            if (quoted) {
+                if (c == '"') {
+                    int following = read();
+                    if (following == '"') {
+                        field.append('"');
+                    } else {
+                        quoted = false;
+                        pending = following;
+                    }
+                } else {
+                    field.append((char) c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+                empty = false;
+            } else if (c == ',') {
+                record.add(field.toString());
+                field.setLength(0);
+                empty = false;
+            } else if (c == '\n') {
+                if (!empty)
+                    break;
+            } else if (c != '\r') {
+                field.append((char) c);
+                empty = false;
+            }
+        }
+        if (quoted)
+            throw new ImportFormatException("Запись " + index + ": не закрыта кавычка");
+        if (empty)
+            return null;
+        record.add(field.toString());
+        return record;
+    }
+
+    private int read() {
+        if (pending != -1) {
+            int c = pending;
+            pending = -1;
+            return c;
+        }
+        try {
+            return reader.read();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package ru.practicum.shareit.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+/**
+ * Записывает количество SQL-запросов, выполненных за время обработки запроса,
+ * в метрику shareit.sql.statements с тегами method, uri и status.
+ */
+@Slf4j
+@RequiredArgsConstructor
+public class SqlStatementMetricsInterceptor implements HandlerInterceptor {
+
+    public static final String METRIC_NAME = "shareit.sql.statements";
+
+    private final MeterRegistry meterRegistry;
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        SqlStatementCounter.reset();
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+                                Exception ex) {
+        long count = SqlStatementCounter.get();
+        SqlStatementCounter.clear();
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String uri = pattern != null ? pattern.toString() : "UNKNOWN";
+
+        DistributionSummary.builder(METRIC_NAME)
+                .description("SQL-запросы на один HTTP-запрос")
+                .baseUnit("statements")
+                .tag("method", request.getMethod())
+                .tag("uri", uri)
+                .tag("status", String.valueOf(response.getStatus()))
+                .publishPercentileHistogram()
+                .register(meterRegistry)
+                .record(count);
+        log.debug("{} {} выполнил {} SQL-запросов", request.getMethod(), uri, count);
+    }
+}
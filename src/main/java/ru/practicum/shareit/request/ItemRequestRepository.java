@@ -3,9 +3,12 @@ package ru.practicum.shareit.request;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 public interface ItemRequestRepository extends JpaRepository<ItemRequest, Long> {
 
@@ -24,4 +27,7 @@ public interface ItemRequestRepository extends JpaRepository<ItemRequest, Long>
     Page<ItemRequest> findAll(Pageable pageable);
 
     List<ItemRequest> findAllByRequesterIdNotOrderByCreatedDesc(Long userId, Pageable pageable);
+
+    @Query("select r.id from ItemRequest r where r.id in ?1")
+    Set<Long> findExistingIds(Collection<Long> ids);
 }
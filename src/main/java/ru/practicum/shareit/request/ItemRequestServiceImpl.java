@@ -8,13 +8,16 @@ import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.exceptions.ItemRequestNotFoundException;
 import ru.practicum.shareit.exceptions.UserNotFoundException;
 import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.ItemRepository;
 import ru.practicum.shareit.item.utility.ItemMapper;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
-import ru.practicum.shareit.user.UserRepository;
+import ru.practicum.shareit.user.UserCache;
 import ru.practicum.shareit.utility.FromSizeRequest;
 
 import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
 
 @Service
 @Transactional(readOnly = true)
@@ -22,7 +25,7 @@ import java.util.List;
 @Slf4j
 public class ItemRequestServiceImpl implements ItemRequestService {
 
-    private final UserRepository userRepository;
+    private final UserCache userCache;
 
     private final ItemRepository itemRepository;
 
@@ -31,7 +34,7 @@ public class ItemRequestServiceImpl implements ItemRequestService {
     @Transactional
     @Override
     public ItemRequestDto create(Long userId, ItemRequestDto itemRequestDto) {
-        if (!userRepository.existsById(userId))
+        if (userCache.findById(userId).isEmpty())
             throw new UserNotFoundException("Пользователя с таким id не существует");
         ItemRequest resItemRequest = itemRequestRepository.save(ItemRequestMapper.toItemRequest(itemRequestDto, userId));
         return ItemRequestMapper.toItemRequestDto(resItemRequest);
@@ -39,37 +42,31 @@ public class ItemRequestServiceImpl implements ItemRequestService {
 
     @Override
     public List<ItemRequestDto> findAllByRequester(Long requesterId) {
-        if (!userRepository.existsById(requesterId))
+        if (userCache.findById(requesterId).isEmpty())
             throw new UserNotFoundException("Пользователя с таким id не существует");
 
         List<ItemRequestDto> requests = ItemRequestMapper.toItemRequestDtoList(
                 itemRequestRepository.findAllByRequesterIdIsOrderByCreatedDesc(requesterId)
         );
-        for (ItemRequestDto requestDto : requests) {
-            List<ItemDto> items = ItemMapper.toItemDtoList(itemRepository.findAllByRequestId(requestDto.getId()));
-            requestDto.setItems(items);
-        }
+        setItems(requests);
         return requests;
     }
 
     @Override
     public List<ItemRequestDto> findAll(Long userId, Integer from, Integer size) {
-        if (!userRepository.existsById(userId))
+        if (userCache.findById(userId).isEmpty())
             throw new UserNotFoundException("Пользователя с таким id не существует");
         Pageable pageable = FromSizeRequest.of(from, size);
         List<ItemRequestDto> itemRequestDto = ItemRequestMapper.toItemRequestDtoList(
                 itemRequestRepository.findAllByRequesterIdNotOrderByCreatedDesc(userId, pageable)
         );
-        for (ItemRequestDto requestDto : itemRequestDto) {
-            List<ItemDto> items = ItemMapper.toItemDtoList(itemRepository.findAllByRequestId(requestDto.getId()));
-            requestDto.setItems(items);
-        }
+        setItems(itemRequestDto);
         return itemRequestDto;
     }
 
     @Override
     public ItemRequestDto findById(Long userId, Long requestId) {
-        if (!userRepository.existsById(userId))
+        if (userCache.findById(userId).isEmpty())
             throw new UserNotFoundException("Пользователя с таким id не существует");
         if (!itemRequestRepository.existsById(requestId))
             throw new ItemRequestNotFoundException("Запроса с таким id не существует");
@@ -81,4 +78,17 @@ public class ItemRequestServiceImpl implements ItemRequestService {
         itemRequestDto.setItems(items);
         return itemRequestDto;
     }
+
+    private void setItems(List<ItemRequestDto> requests) {
+        if (requests.isEmpty())
+            return;
+        List<Long> requestIds = requests.stream()
+                .map(ItemRequestDto::getId)
+                .collect(Collectors.toList());
+        Map<Long, List<Item>> items = itemRepository.findAllByRequestIdInOrderByIdAsc(requestIds)
+                .stream()
+                .collect(Collectors.groupingBy(Item::getRequestId));
+        for (ItemRequestDto requestDto : requests)
+            requestDto.setItems(ItemMapper.toItemDtoList(items.getOrDefault(requestDto.getId(), List.of())));
+    }
 }
@@ -0,0 +1,37 @@
+package ru.practicum.shareit.user;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.transaction.TransactionAwareCacheDecorator;
+import org.springframework.stereotype.Component;
+
+import java.util.Optional;
+
+/**
+ * Кэш пользователей для проверки заголовка X-Sharer-User-Id.
+ * Хранит копии в виде UserDto, а не управляемые сущности; размер и время жизни задаются
+ * свойством spring.cache.caffeine.spec.
+ */
+@Component
+@RequiredArgsConstructor
+public class UserCache {
+
+    public static final String NAME = "users";
+
+    private final UserRepository userRepository;
+
+    private final CacheManager cacheManager;
+
+    @Cacheable(cacheNames = NAME, unless = "#result == null")
+    public Optional<UserDto> findById(Long id) {
+        return userRepository.findById(id).map(UserMapper::toUserDto);
+    }
+
+    public void evict(Long id) {
+        Cache cache = cacheManager.getCache(NAME);
+        if (cache != null)
+            new TransactionAwareCacheDecorator(cache).evict(id);
+    }
+}
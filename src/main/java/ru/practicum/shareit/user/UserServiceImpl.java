@@ -3,8 +3,10 @@ package ru.practicum.shareit.user;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.service.ItemBookingSummaryService;
 import ru.practicum.shareit.exceptions.AlreadyExistsEmailException;
 import ru.practicum.shareit.exceptions.UserNotFoundException;
+import ru.practicum.shareit.item.search.ItemSearchIndex;
 
 import java.util.List;
 import java.util.stream.Collectors;
@@ -16,14 +18,18 @@ public class UserServiceImpl implements UserService {
 
     private final UserRepository userRepository;
 
+    private final ItemSearchIndex itemSearchIndex;
+
+    private final UserCache userCache;
+
+    private final ItemBookingSummaryService itemBookingSummaryService;
+
 
     @Transactional
     @Override
     public UserDto create(UserDto userDto) throws UserNotFoundException {
         User resUser = UserMapper.toUser(userDto);
-        Long userId = userRepository.save(resUser).getId();
-        return UserMapper.toUserDto(userRepository.findById(userId)
-                .orElseThrow(() -> new UserNotFoundException("User с идентификатором " + userId + " не найден.")));
+        return UserMapper.toUserDto(userRepository.save(resUser));
     }
 
 
@@ -41,15 +47,15 @@ public class UserServiceImpl implements UserService {
             user.setName(userDto.getName());
 
         userRepository.save(user);
+        userCache.evict(id);
         return UserMapper.toUserDto(user);
     }
 
 
     @Override
     public UserDto findById(Long id) throws UserNotFoundException {
-        User user = userRepository.findById(id)
+        return userCache.findById(id)
                 .orElseThrow(() -> new UserNotFoundException("User с идентификатором " + id + " не найден."));
-        return UserMapper.toUserDto(user);
     }
 
 
@@ -64,7 +70,10 @@ public class UserServiceImpl implements UserService {
     @Transactional
     @Override
     public void deleteById(Long id) throws UserNotFoundException {
+        itemBookingSummaryService.expireByBookerId(id);
         userRepository.deleteById(id);
+        userCache.evict(id);
+        itemSearchIndex.removeAllByOwnerId(id);
     }
 
 }
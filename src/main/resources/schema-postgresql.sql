@@ -0,0 +1,52 @@
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+CREATE INDEX IF NOT EXISTS trgm_items_index_name ON items USING gin (lower(name) gin_trgm_ops) WHERE is_available;
+CREATE INDEX IF NOT EXISTS trgm_items_index_description ON items USING gin (lower(description) gin_trgm_ops) WHERE is_available;
+
+CREATE EXTENSION IF NOT EXISTS btree_gist;
+
+-- Если в bookings уже есть пересекающиеся брони, ограничение не создается, чтобы не прерывать старт:
+-- о пропуске предупреждает BookingOverlapConstraintCheck, пересечения разбираются вручную (см. README).
+DO '
+DECLARE
+    conflicts BIGINT;
+BEGIN
+    IF NOT EXISTS (SELECT 1 FROM pg_constraint WHERE conname = ''ex_bookings_item_period'') THEN
+        SELECT COUNT(*)
+        INTO conflicts
+        FROM bookings AS a
+                 JOIN bookings AS b ON b.item_id = a.item_id AND b.id > a.id
+            AND tsrange(b.start_date, b.end_date) && tsrange(a.start_date, a.end_date)
+        WHERE a.status IN (''APPROVED'', ''WAITING'')
+          AND b.status IN (''APPROVED'', ''WAITING'');
+        IF conflicts = 0 THEN
+            ALTER TABLE bookings
+                ADD CONSTRAINT ex_bookings_item_period
+                    EXCLUDE USING gist (item_id WITH =, tsrange(start_date, end_date) WITH &&)
+                    WHERE (status IN (''APPROVED'', ''WAITING''));
+        END IF;
+    END IF;
+END
+';
+
+-- Id выдает Hibernate из последовательностей <таблица>_seq (шаг 50, pooled-lo). IDENTITY снимается один раз,
+-- вставки мимо приложения берут id той же последовательностью. Последовательность догоняет существующие id
+-- только при снятии IDENTITY: позже MAX(id) может лежать внутри блока, который держит работающий экземпляр.
+DO '
+DECLARE
+    t TEXT;
+BEGIN
+    FOREACH t IN ARRAY ARRAY [''users'', ''requests'', ''items'', ''bookings'', ''comments'']
+        LOOP
+            IF EXISTS (SELECT 1
+                       FROM information_schema.columns
+                       WHERE table_name = t AND column_name = ''id'' AND is_identity = ''YES'') THEN
+                EXECUTE format(''ALTER TABLE %I ALTER COLUMN id DROP IDENTITY'', t);
+                EXECUTE format(''ALTER TABLE %I ALTER COLUMN id SET DEFAULT nextval(%L)'', t, t || ''_seq'');
+                EXECUTE format(''ALTER SEQUENCE %I OWNED BY %I.id'', t || ''_seq'', t);
+                EXECUTE format(''SELECT setval(%L, m + 1, false) FROM (SELECT MAX(id) AS m FROM %I) AS ids ''
+                                   || ''WHERE m IS NOT NULL'', t || ''_seq'', t);
+            END IF;
+        END LOOP;
+END
+';
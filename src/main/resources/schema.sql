@@ -7,6 +7,8 @@ CREATE TABLE IF NOT EXISTS users
     CONSTRAINT UQ_USER_EMAIL UNIQUE (email)
 );
 
+CREATE SEQUENCE IF NOT EXISTS users_seq START WITH 1 INCREMENT BY 50;
+
 
 CREATE TABLE IF NOT EXISTS requests
 (
@@ -20,6 +22,8 @@ CREATE TABLE IF NOT EXISTS requests
 
 CREATE INDEX IF NOT EXISTS fk_requests_index_requester_id ON requests (requester_id);
 
+CREATE SEQUENCE IF NOT EXISTS requests_seq START WITH 1 INCREMENT BY 50;
+
 
 CREATE TABLE IF NOT EXISTS items
 (
@@ -37,6 +41,8 @@ CREATE TABLE IF NOT EXISTS items
 CREATE INDEX IF NOT EXISTS fk_items_index_owner_id ON items (owner_id);
 CREATE INDEX IF NOT EXISTS fk_items_index_request_id ON items (request_id);
 
+CREATE SEQUENCE IF NOT EXISTS items_seq START WITH 1 INCREMENT BY 50;
+
 
 CREATE TABLE IF NOT EXISTS bookings
 (
@@ -46,13 +52,44 @@ CREATE TABLE IF NOT EXISTS bookings
     item_id    BIGINT                                  NOT NULL,
     booker_id  BIGINT                                  NOT NULL,
     status     VARCHAR(64)                             NOT NULL,
+    owner_id   BIGINT                                  NOT NULL,
     CONSTRAINT pk_booking PRIMARY KEY (id),
     CONSTRAINT fk_item_id_for_booking FOREIGN KEY (item_id) REFERENCES items (id) ON DELETE CASCADE,
-    CONSTRAINT fk_booker_id_for_booking FOREIGN KEY (booker_id) REFERENCES users (id) ON DELETE CASCADE
+    CONSTRAINT fk_booker_id_for_booking FOREIGN KEY (booker_id) REFERENCES users (id) ON DELETE CASCADE,
+    CONSTRAINT fk_owner_id_for_booking FOREIGN KEY (owner_id) REFERENCES users (id) ON DELETE CASCADE
 );
 
+ALTER TABLE bookings ADD COLUMN IF NOT EXISTS owner_id BIGINT REFERENCES users (id) ON DELETE CASCADE;
+UPDATE bookings SET owner_id = (SELECT i.owner_id FROM items AS i WHERE i.id = bookings.item_id) WHERE owner_id IS NULL;
+ALTER TABLE bookings ALTER COLUMN owner_id SET NOT NULL;
+
 CREATE INDEX IF NOT EXISTS fk_bookings_index_item_id ON bookings (item_id);
-CREATE INDEX IF NOT EXISTS fk_bookings_index_booker_id ON bookings (booker_id);
+CREATE INDEX IF NOT EXISTS bookings_index_booker_start ON bookings (booker_id, start_date DESC, id DESC);
+CREATE INDEX IF NOT EXISTS bookings_index_booker_status_start ON bookings (booker_id, status, start_date DESC, id DESC);
+DROP INDEX IF EXISTS fk_bookings_index_booker_id;
+CREATE INDEX IF NOT EXISTS bookings_index_owner_start ON bookings (owner_id, start_date DESC, id DESC);
+CREATE INDEX IF NOT EXISTS bookings_index_owner_status_start ON bookings (owner_id, status, start_date DESC, id DESC);
+
+CREATE SEQUENCE IF NOT EXISTS bookings_seq START WITH 1 INCREMENT BY 50;
+
+
+CREATE TABLE IF NOT EXISTS item_booking_summary
+(
+    item_id         BIGINT NOT NULL,
+    last_booking_id BIGINT,
+    last_start_date TIMESTAMP,
+    last_end_date   TIMESTAMP,
+    last_booker_id  BIGINT,
+    next_booking_id BIGINT,
+    next_start_date TIMESTAMP,
+    next_end_date   TIMESTAMP,
+    next_booker_id  BIGINT,
+    valid_until     TIMESTAMP,
+    CONSTRAINT pk_item_booking_summary PRIMARY KEY (item_id),
+    CONSTRAINT fk_item_id_for_booking_summary FOREIGN KEY (item_id) REFERENCES items (id) ON DELETE CASCADE
+);
+
+CREATE INDEX IF NOT EXISTS item_booking_summary_index_valid_until ON item_booking_summary (valid_until);
 
 
 
@@ -71,4 +108,6 @@ CREATE TABLE IF NOT EXISTS comments
 CREATE INDEX IF NOT EXISTS fk_comments_index_item_id ON comments (item_id);
 CREATE INDEX IF NOT EXISTS fk_comments_index_author_id ON comments (author_id);
 
+CREATE SEQUENCE IF NOT EXISTS comments_seq START WITH 1 INCREMENT BY 50;
+
 
@@ -0,0 +1,212 @@
+package ru.practicum.shareit;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.ItemBookingSummary;
+import ru.practicum.shareit.enums.Status;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.User;
+import ru.practicum.shareit.user.UserCache;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Количество SQL-запросов на один вызов эндпоинта. Кэш пользователей очищается перед каждым
+ * вызовом, поэтому проверка пользователя всегда стоит один запрос.
+ */
+@Transactional
+@SpringBootTest(properties = {"db.name=test", "spring.jpa.properties.hibernate.generate_statistics=true"})
+@AutoConfigureMockMvc
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+class StatementCountTest {
+
+    private final EntityManager em;
+
+    private final EntityManagerFactory emf;
+
+    private final CacheManager cacheManager;
+
+    private final ObjectMapper mapper;
+
+    private final MockMvc mvc;
+
+    private Statistics statistics;
+
+    private User owner;
+
+    private User booker;
+
+    private Item item;
+
+    private Booking booking;
+
+    @BeforeEach
+    void beforeEach() {
+        statistics = emf.unwrap(SessionFactory.class).getStatistics();
+        owner = User.builder()
+                .name("owner")
+                .email("owner@email.com")
+                .build();
+        em.persist(owner);
+        booker = User.builder()
+                .name("booker")
+                .email("booker@email.com")
+                .build();
+        em.persist(booker);
+        item = new Item(null, "Дрель", "Аккумуляторная дрель", true, owner, null);
+        em.persist(item);
+        em.persist(new ItemBookingSummary(item.getId()));
+        booking = Booking.builder()
+                .start(LocalDateTime.now().plusDays(1))
+                .end(LocalDateTime.now().plusDays(2))
+                .item(item)
+                .booker(booker)
+                .status(Status.WAITING)
+                .build();
+        em.persist(booking);
+    }
+
+    @Test
+    void createUser() throws Exception {
+        final long count = countStatements(post("/users")
+                .content(mapper.writeValueAsString(Map.of("name", "John", "email", "john@email.com"))));
+
+        assertThat(count, equalTo(1L));
+    }
+
+    @Test
+    void createItem() throws Exception {
+        final long count = countStatements(post("/items")
+                .header("X-Sharer-User-Id", owner.getId())
+                .content(mapper.writeValueAsString(
+                        Map.of("name", "Отвертка", "description", "Крестовая отвертка", "available", true))));
+
+        assertThat(count, equalTo(3L));
+    }
+
+    @Test
+    void updateItem() throws Exception {
+        final long count = countStatements(patch("/items/{itemId}", item.getId())
+                .header("X-Sharer-User-Id", owner.getId())
+                .content(mapper.writeValueAsString(Map.of("name", "Перфоратор"))));
+
+        assertThat(count, equalTo(3L));
+    }
+
+    @Test
+    void createBooking() throws Exception {
+        final long count = countStatements(post("/bookings")
+                .header("X-Sharer-User-Id", booker.getId())
+                .content(mapper.writeValueAsString(Map.of(
+                        "itemId", item.getId(),
+                        "start", LocalDateTime.now().plusDays(3).toString(),
+                        "end", LocalDateTime.now().plusDays(4).toString()))));
+
+        assertThat(count, equalTo(4L));
+    }
+
+    @Test
+    void createBookingBatch() throws Exception {
+        LocalDateTime start = LocalDateTime.now().plusDays(3);
+        List<Map<String, Object>> bookings = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            bookings.add(Map.of(
+                    "itemId", item.getId(),
+                    "start", start.plusDays(i).toString(),
+                    "end", start.plusDays(i).plusHours(12).toString()));
+        }
+        final long count = countStatements(post("/bookings/batch")
+                .header("X-Sharer-User-Id", booker.getId())
+                .content(mapper.writeValueAsString(bookings)));
+
+        assertThat(count, equalTo(4L));
+    }
+
+    @Test
+    void importItems() throws Exception {
+        List<Map<String, Object>> items = new ArrayList<>();
+        for (int i = 0; i < 100; i++)
+            items.add(Map.of("name", "Отвертка " + i, "description", "Крестовая отвертка", "available", true));
+        final long count = countStatements(post("/items/import")
+                .header("X-Sharer-User-Id", owner.getId())
+                .content(mapper.writeValueAsString(items)), MediaType.APPLICATION_NDJSON);
+
+        assertThat(count, equalTo(5L));
+    }
+
+    @Test
+    void approveBooking() throws Exception {
+        final long count = countStatements(patch("/bookings/{bookingId}", booking.getId())
+                .header("X-Sharer-User-Id", owner.getId())
+                .param("approved", "true"));
+
+        assertThat(count, equalTo(9L));
+    }
+
+    @Test
+    void findBookingById() throws Exception {
+        final long count = countStatements(get("/bookings/{bookingId}", booking.getId())
+                .header("X-Sharer-User-Id", booker.getId()));
+
+        assertThat(count, equalTo(2L));
+    }
+
+    @Test
+    void findItemForOwner() throws Exception {
+        final long count = countStatements(get("/items/{itemId}", item.getId())
+                .header("X-Sharer-User-Id", owner.getId()));
+
+        assertThat(count, equalTo(4L));
+    }
+
+    @Test
+    void findAllBookingsForOwner() throws Exception {
+        final long count = countStatements(get("/bookings/owner")
+                .header("X-Sharer-User-Id", owner.getId()));
+
+        assertThat(count, equalTo(2L));
+    }
+
+    private long countStatements(MockHttpServletRequestBuilder request) throws Exception {
+        return countStatements(request, MediaType.APPLICATION_JSON);
+    }
+
+    private long countStatements(MockHttpServletRequestBuilder request, MediaType accept) throws Exception {
+        em.flush();
+        em.clear();
+        cacheManager.getCache(UserCache.NAME).clear();
+        statistics.clear();
+
+        mvc.perform(request
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(accept))
+                .andExpect(status().is2xxSuccessful());
+        em.flush();
+        return statistics.getPrepareStatementCount();
+    }
+}
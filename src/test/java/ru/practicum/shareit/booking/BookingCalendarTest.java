@@ -0,0 +1,69 @@
+package ru.practicum.shareit.booking;
+
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.booking.dto.BookingPeriodView;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+
+class BookingCalendarTest {
+
+    private final LocalDateTime base = LocalDateTime.of(2030, 1, 1, 0, 0);
+
+    private BookingPeriodView period(int startHour, int endHour) {
+        return new BookingPeriodView() {
+            @Override
+            public LocalDateTime getStart() {
+                return base.plusHours(startHour);
+            }
+
+            @Override
+            public LocalDateTime getEnd() {
+                return base.plusHours(endHour);
+            }
+        };
+    }
+
+    @Test
+    void isFree() {
+        final BookingCalendar calendar = BookingCalendar.of(List.of(period(10, 12), period(14, 16)));
+
+        assertThat(calendar.isFree(base.plusHours(8), base.plusHours(10)), equalTo(true));
+        assertThat(calendar.isFree(base.plusHours(12), base.plusHours(14)), equalTo(true));
+        assertThat(calendar.isFree(base.plusHours(16), base.plusHours(20)), equalTo(true));
+        assertThat(calendar.isFree(base.plusHours(9), base.plusHours(11)), equalTo(false));
+        assertThat(calendar.isFree(base.plusHours(11), base.plusHours(15)), equalTo(false));
+        assertThat(calendar.isFree(base.plusHours(13), base.plusHours(17)), equalTo(false));
+        assertThat(calendar.isFree(base.plusHours(8), base.plusHours(20)), equalTo(false));
+    }
+
+    @Test
+    void addMergesOverlappingPeriods() {
+        final BookingCalendar calendar = BookingCalendar.of(
+                List.of(period(10, 12), period(14, 16), period(11, 15), period(16, 18)));
+
+        assertThat(calendar.isFree(base.plusHours(12), base.plusHours(14)), equalTo(false));
+        assertThat(calendar.nextFreeStart(base.plusHours(10), Duration.ofHours(1)), equalTo(base.plusHours(18)));
+    }
+
+    @Test
+    void nextFreeStart() {
+        final BookingCalendar calendar = BookingCalendar.of(List.of(period(10, 12), period(13, 16)));
+
+        assertThat(calendar.nextFreeStart(base.plusHours(8), Duration.ofHours(2)), equalTo(base.plusHours(8)));
+        assertThat(calendar.nextFreeStart(base.plusHours(9), Duration.ofHours(2)), equalTo(base.plusHours(16)));
+        assertThat(calendar.nextFreeStart(base.plusHours(11), Duration.ofHours(1)), equalTo(base.plusHours(12)));
+    }
+
+    @Test
+    void emptyCalendar() {
+        final BookingCalendar calendar = BookingCalendar.of(List.of());
+
+        assertThat(calendar.isFree(base, base.plusHours(1)), equalTo(true));
+        assertThat(calendar.nextFreeStart(base, Duration.ofHours(1)), equalTo(base));
+    }
+}
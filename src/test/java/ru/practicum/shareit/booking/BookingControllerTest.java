@@ -5,8 +5,12 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import ru.practicum.shareit.NdjsonErrorConfig;
+import ru.practicum.shareit.booking.dto.BookingBatchResultDto;
 import ru.practicum.shareit.booking.dto.BookingPrintDto;
 import ru.practicum.shareit.booking.service.BookingService;
 import ru.practicum.shareit.enums.State;
@@ -19,16 +23,22 @@ import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
 
 import static org.hamcrest.Matchers.hasSize;
 import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
-import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
-import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 @WebMvcTest(controllers = BookingController.class)
+@Import(NdjsonErrorConfig.class)
 class BookingControllerTest {
 
     @Autowired
@@ -56,8 +66,8 @@ class BookingControllerTest {
             .id(1L)
             .start(start)
             .end(end)
-            .item(item)
-            .booker(user)
+            .item(new BookingPrintDto.ItemInfo(item.getId(), item.getName()))
+            .booker(new BookingPrintDto.BookerInfo(user.getId()))
             .status(Status.APPROVED)
             .build();
 
@@ -272,7 +282,7 @@ class BookingControllerTest {
     void findAllByStateTest() throws Exception {
         final Integer from = 0;
         final Integer size = 10;
-        final String state = String.valueOf(State.ALL);
+        final State state = State.ALL;
         List<BookingPrintDto> result = List.of(bookingPrintDto);
         when(bookingService.findAllByState(1L, state, from, size))
                 .thenReturn(result);
@@ -280,7 +290,7 @@ class BookingControllerTest {
         mvc.perform(get("/bookings")
                         .param("from", String.valueOf(from))
                         .param("size", String.valueOf(size))
-                        .param("state", state)
+                        .param("state", state.name())
                         .header("X-Sharer-User-Id", 1L)
                         .content(mapper.writeValueAsString(result))
                         .characterEncoding(StandardCharsets.UTF_8)
@@ -302,8 +312,6 @@ class BookingControllerTest {
         final Integer size = 10;
         final String state = "SOME";
         List<BookingPrintDto> result = List.of(bookingPrintDto);
-        when(bookingService.findAllByState(1L, state, from, size))
-                .thenThrow(new UnsupportedStateException("Unknown state: " + state));
 
         mvc.perform(get("/bookings")
                         .param("from", String.valueOf(from))
@@ -316,13 +324,15 @@ class BookingControllerTest {
                         .accept(MediaType.APPLICATION_JSON))
                 .andExpect(status().isBadRequest())
                 .andExpect(jsonPath("$.error", is("Unknown state: " + state)));
+
+        verifyNoInteractions(bookingService);
     }
 
     @Test
     void findAllByParamForOwnerTest() throws Exception {
         final Integer from = 0;
         final Integer size = 10;
-        final String state = String.valueOf(State.ALL);
+        final State state = State.ALL;
         List<BookingPrintDto> result = List.of(bookingPrintDto);
         when(bookingService.findAllByStateForOwner(2L, state, from, size))
                 .thenReturn(result);
@@ -330,7 +340,7 @@ class BookingControllerTest {
         mvc.perform(get("/bookings/owner")
                         .param("from", String.valueOf(from))
                         .param("size", String.valueOf(size))
-                        .param("state", state)
+                        .param("state", state.name())
                         .header("X-Sharer-User-Id", 2L)
                         .content(mapper.writeValueAsString(result))
                         .characterEncoding(StandardCharsets.UTF_8)
@@ -352,8 +362,6 @@ class BookingControllerTest {
         final Integer size = 10;
         final String state = "SOME";
         List<BookingPrintDto> result = List.of(bookingPrintDto);
-        when(bookingService.findAllByStateForOwner(2L, state, from, size))
-                .thenThrow(new UnsupportedStateException("Unknown state: " + state));
 
         mvc.perform(get("/bookings/owner")
                         .param("from", String.valueOf(from))
@@ -366,5 +374,137 @@ class BookingControllerTest {
                         .accept(MediaType.APPLICATION_JSON))
                 .andExpect(status().isBadRequest())
                 .andExpect(jsonPath("$.error", is("Unknown state: " + state)));
+
+        verifyNoInteractions(bookingService);
+    }
+
+    @Test
+    void findAllByStateWithCursorTest() throws Exception {
+        final Integer size = 1;
+        final State state = State.ALL;
+        final BookingCursor cursor = new BookingCursor(end, 5L);
+        List<BookingPrintDto> result = List.of(bookingPrintDto);
+        when(bookingService.findAllByStateAfter(1L, state, cursor, size))
+                .thenReturn(result);
+
+        mvc.perform(get("/bookings")
+                        .param("size", String.valueOf(size))
+                        .param("state", state.name())
+                        .param("cursor", cursor.encode())
+                        .header("X-Sharer-User-Id", 1L)
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].id", is(bookingPrintDto.getId()), Long.class))
+                .andExpect(header().string(BookingController.NEXT_CURSOR_HEADER,
+                        new BookingCursor(start, bookingPrintDto.getId()).encode()));
+    }
+
+    @Test
+    void findAllByParamForOwnerLastPageTest() throws Exception {
+        final Integer size = 10;
+        final State state = State.ALL;
+        final BookingCursor cursor = new BookingCursor(end, 5L);
+        when(bookingService.findAllByStateForOwnerAfter(2L, state, cursor, size))
+                .thenReturn(List.of(bookingPrintDto));
+
+        mvc.perform(get("/bookings/owner")
+                        .param("size", String.valueOf(size))
+                        .param("state", state.name())
+                        .param("cursor", cursor.encode())
+                        .header("X-Sharer-User-Id", 2L)
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(header().doesNotExist(BookingController.NEXT_CURSOR_HEADER));
+    }
+
+    @Test
+    void findAllByStateInvalidCursorExceptionTest() throws Exception {
+        mvc.perform(get("/bookings")
+                        .param("cursor", "not-a-cursor")
+                        .header("X-Sharer-User-Id", 1L)
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.Error", is("Некорректный курсор: not-a-cursor")));
+    }
+
+    @Test
+    void exportAllByStateTest() throws Exception {
+        BookingPrintDto second = BookingPrintDto.builder()
+                .id(2L)
+                .start(start.minusDays(10))
+                .end(end.minusDays(10))
+                .item(new BookingPrintDto.ItemInfo(item.getId(), item.getName()))
+                .booker(new BookingPrintDto.BookerInfo(user.getId()))
+                .status(Status.APPROVED)
+                .build();
+        doAnswer(invocation -> {
+            Consumer<BookingPrintDto> action = invocation.getArgument(2);
+            action.accept(bookingPrintDto);
+            action.accept(second);
+            return null;
+        }).when(bookingService).exportAllByState(eq(1L), eq(State.ALL), any());
+
+        MvcResult result = mvc.perform(get("/bookings/export")
+                        .header("X-Sharer-User-Id", 1L))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON))
+                .andReturn();
+
+        assertEquals(mapper.writeValueAsString(bookingPrintDto) + "\n" + mapper.writeValueAsString(second) + "\n",
+                result.getResponse().getContentAsString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void exportAllByStateForOwnerUserNotFoundExceptionTest() throws Exception {
+        doThrow(new UserNotFoundException("Пользователя с таким id не существует"))
+                .when(bookingService).exportAllByStateForOwner(eq(99L), eq(State.ALL), any());
+
+        mvc.perform(get("/bookings/owner/export")
+                        .header("X-Sharer-User-Id", 99L))
+                .andExpect(status().isNotFound())
+                .andExpect(jsonPath("$.Error", is("Пользователя с таким id не существует")));
+    }
+
+    @Test
+    void createAllTest() throws Exception {
+        List<BookingBatchResultDto> results = List.of(
+                BookingBatchResultDto.builder().index(0).booking(bookingPrintDto).build(),
+                BookingBatchResultDto.builder().index(1).error("Вещь уже забронирована на указанный период").build());
+        when(bookingService.createAll(eq(1L), any()))
+                .thenReturn(results);
+
+        mvc.perform(post("/bookings/batch")
+                        .header("X-Sharer-User-Id", 1L)
+                        .content(mapper.writeValueAsString(List.of(
+                                Map.of("itemId", 1, "start", start.toString(), "end", end.toString()),
+                                Map.of("itemId", 1, "start", start.toString(), "end", end.toString()))))
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(2)))
+                .andExpect(jsonPath("$[0].booking.id", is(bookingPrintDto.getId()), Long.class))
+                .andExpect(jsonPath("$[1].index", is(1)))
+                .andExpect(jsonPath("$[1].error", is("Вещь уже забронирована на указанный период")));
+    }
+
+    @Test
+    void createAllBatchSizeExceptionTest() throws Exception {
+        when(bookingService.createAll(eq(1L), any()))
+                .thenThrow(new BatchSizeException("Пакет должен содержать от 1 до 1000 бронирований"));
+
+        mvc.perform(post("/bookings/batch")
+                        .header("X-Sharer-User-Id", 1L)
+                        .content("[]")
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.Error", is("Пакет должен содержать от 1 до 1000 бронирований")));
     }
-}
\ No newline at end of file
+}
@@ -45,8 +45,8 @@ public class BookingDtoJsonTest {
             .id(1L)
             .start(start)
             .end(end)
-            .item(item)
-            .booker(user)
+            .item(new BookingPrintDto.ItemInfo(item.getId(), item.getName()))
+            .booker(new BookingPrintDto.BookerInfo(user.getId()))
             .status(Status.APPROVED)
             .build();
 
@@ -0,0 +1,42 @@
+package ru.practicum.shareit.booking;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import static org.mockito.ArgumentMatchers.contains;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class BookingOverlapConstraintCheckTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void checkWithConstraint() {
+        when(jdbcTemplate.queryForObject(contains("pg_constraint"), eq(Long.class)))
+                .thenReturn(1L);
+
+        new BookingOverlapConstraintCheck(jdbcTemplate).check();
+
+        verify(jdbcTemplate, times(1))
+                .queryForObject(anyString(), eq(Long.class));
+    }
+
+    @Test
+    void checkWithoutConstraintCountsConflicts() {
+        when(jdbcTemplate.queryForObject(contains("pg_constraint"), eq(Long.class)))
+                .thenReturn(0L);
+        when(jdbcTemplate.queryForObject(contains("tsrange"), eq(Long.class)))
+                .thenReturn(2L);
+
+        new BookingOverlapConstraintCheck(jdbcTemplate).check();
+
+        verify(jdbcTemplate, times(2))
+                .queryForObject(anyString(), eq(Long.class));
+    }
+}
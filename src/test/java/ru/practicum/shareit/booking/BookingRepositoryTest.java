@@ -6,7 +6,9 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import ru.practicum.shareit.booking.dto.BookingPrintView;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.enums.Status;
 import ru.practicum.shareit.item.model.Item;
@@ -14,6 +16,7 @@ import ru.practicum.shareit.user.User;
 import ru.practicum.shareit.utility.FromSizeRequest;
 
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
 import java.util.List;
 
 import static org.hamcrest.MatcherAssert.assertThat;
@@ -83,10 +86,17 @@ public class BookingRepositoryTest {
                 .build();
         em.persist(booking);
 
-        final var result = bookingRepository.findAllByBookerIdOrderByStartDesc(user.getId(), pageable);
+        final var result = bookingRepository.search(BookingFilter.builder()
+                .role(BookingFilter.Role.BOOKER)
+                .userId(user.getId())
+                .build(), pageable);
 
         assertThat(result.size(), equalTo(1));
         assertThat(result.get(0).getId(), equalTo(booking.getId()));
+        assertThat(result.get(0).getItemId(), equalTo(item.getId()));
+        assertThat(result.get(0).getItemName(), equalTo(item.getName()));
+        assertThat(result.get(0).getBookerId(), equalTo(user.getId()));
+        assertThat(result.get(0).getStatus(), equalTo(Status.APPROVED));
     }
 
     @Test
@@ -102,7 +112,10 @@ public class BookingRepositoryTest {
                 .build();
         em.persist(booking);
 
-        final var result = bookingRepository.findAllForOwner(owner.getId(), pageable);
+        final var result = bookingRepository.search(BookingFilter.builder()
+                .role(BookingFilter.Role.OWNER)
+                .userId(owner.getId())
+                .build(), pageable);
 
         assertThat(result.size(), equalTo(1));
         assertThat(result.get(0).getId(), equalTo(booking.getId()));
@@ -122,7 +135,13 @@ public class BookingRepositoryTest {
         em.persist(booking);
         final List<Status> status = List.of(Status.APPROVED, Status.WAITING);
 
-        final var result = bookingRepository.findAllWithStateCurrent(user.getId(), status, pageable);
+        final var result = bookingRepository.search(BookingFilter.builder()
+                .role(BookingFilter.Role.BOOKER)
+                .userId(user.getId())
+                .statuses(status)
+                .startUntil(LocalDateTime.now())
+                .endAfter(LocalDateTime.now())
+                .build(), pageable);
 
         assertThat(result.size(), equalTo(1));
         assertThat(result.get(0).getId(), equalTo(booking.getId()));
@@ -142,7 +161,13 @@ public class BookingRepositoryTest {
         em.persist(booking);
         final List<Status> status = List.of(Status.APPROVED, Status.WAITING);
 
-        final var result = bookingRepository.findAllWithStateCurrentForOwner(owner.getId(), status, pageable);
+        final var result = bookingRepository.search(BookingFilter.builder()
+                .role(BookingFilter.Role.OWNER)
+                .userId(owner.getId())
+                .statuses(status)
+                .startUntil(LocalDateTime.now())
+                .endAfter(LocalDateTime.now())
+                .build(), pageable);
 
         assertThat(result.size(), equalTo(1));
         assertThat(result.get(0).getId(), equalTo(booking.getId()));
@@ -162,7 +187,13 @@ public class BookingRepositoryTest {
                 .build();
         em.persist(booking);
 
-        final var result = bookingRepository.findAllWithStatePast(user.getId(), Status.APPROVED, pageable);
+        final var result = bookingRepository.search(BookingFilter.builder()
+                .role(BookingFilter.Role.BOOKER)
+                .userId(user.getId())
+                .statuses(List.of(Status.APPROVED))
+                .startUntil(LocalDateTime.now())
+                .endBefore(LocalDateTime.now())
+                .build(), pageable);
 
         assertThat(result.size(), equalTo(1));
         assertThat(result.get(0).getId(), equalTo(booking.getId()));
@@ -181,7 +212,13 @@ public class BookingRepositoryTest {
                 .build();
         em.persist(booking);
 
-        final var result = bookingRepository.findAllWithStatePastForOwner(owner.getId(), Status.APPROVED, pageable);
+        final var result = bookingRepository.search(BookingFilter.builder()
+                .role(BookingFilter.Role.OWNER)
+                .userId(owner.getId())
+                .statuses(List.of(Status.APPROVED))
+                .startUntil(LocalDateTime.now())
+                .endBefore(LocalDateTime.now())
+                .build(), pageable);
 
         assertThat(result.size(), equalTo(1));
         assertThat(result.get(0).getId(), equalTo(booking.getId()));
@@ -202,7 +239,12 @@ public class BookingRepositoryTest {
         em.persist(booking);
         final List<Status> status = List.of(Status.APPROVED, Status.WAITING);
 
-        final var result = bookingRepository.findAllWithStateFuture(user.getId(), status, pageable);
+        final var result = bookingRepository.search(BookingFilter.builder()
+                .role(BookingFilter.Role.BOOKER)
+                .userId(user.getId())
+                .statuses(status)
+                .startAfter(LocalDateTime.now())
+                .build(), pageable);
 
         assertThat(result.size(), equalTo(1));
         assertThat(result.get(0).getId(), equalTo(booking.getId()));
@@ -222,7 +264,12 @@ public class BookingRepositoryTest {
         em.persist(booking);
         final List<Status> status = List.of(Status.APPROVED, Status.WAITING);
 
-        final var result = bookingRepository.findAllWithStateFutureForOwner(owner.getId(), status, pageable);
+        final var result = bookingRepository.search(BookingFilter.builder()
+                .role(BookingFilter.Role.OWNER)
+                .userId(owner.getId())
+                .statuses(status)
+                .startAfter(LocalDateTime.now())
+                .build(), pageable);
 
         assertThat(result.size(), equalTo(1));
         assertThat(result.get(0).getId(), equalTo(booking.getId()));
@@ -241,7 +288,11 @@ public class BookingRepositoryTest {
                 .build();
         em.persist(booking);
 
-        final var result = bookingRepository.findAllByBookerIdAndStatusOrderByStartDesc(user.getId(), Status.WAITING, pageable);
+        final var result = bookingRepository.search(BookingFilter.builder()
+                .role(BookingFilter.Role.BOOKER)
+                .userId(user.getId())
+                .statuses(List.of(Status.WAITING))
+                .build(), pageable);
 
         assertThat(result.size(), equalTo(1));
         assertThat(result.get(0).getId(), equalTo(booking.getId()));
@@ -260,7 +311,11 @@ public class BookingRepositoryTest {
                 .build();
         em.persist(booking);
 
-        final var result = bookingRepository.findAllForOwnerByStatus(owner.getId(), Status.WAITING, pageable);
+        final var result = bookingRepository.search(BookingFilter.builder()
+                .role(BookingFilter.Role.OWNER)
+                .userId(owner.getId())
+                .statuses(List.of(Status.WAITING))
+                .build(), pageable);
 
         assertThat(result.size(), equalTo(1));
         assertThat(result.get(0).getId(), equalTo(booking.getId()));
@@ -279,7 +334,11 @@ public class BookingRepositoryTest {
                 .build();
         em.persist(booking);
 
-        final var result = bookingRepository.findAllByBookerIdAndStatusOrderByStartDesc(user.getId(), Status.REJECTED, pageable);
+        final var result = bookingRepository.search(BookingFilter.builder()
+                .role(BookingFilter.Role.BOOKER)
+                .userId(user.getId())
+                .statuses(List.of(Status.REJECTED))
+                .build(), pageable);
 
         assertThat(result.size(), equalTo(1));
         assertThat(result.get(0).getId(), equalTo(booking.getId()));
@@ -298,14 +357,18 @@ public class BookingRepositoryTest {
                 .build();
         em.persist(booking);
 
-        final var result = bookingRepository.findAllForOwnerByStatus(owner.getId(), Status.REJECTED, pageable);
+        final var result = bookingRepository.search(BookingFilter.builder()
+                .role(BookingFilter.Role.OWNER)
+                .userId(owner.getId())
+                .statuses(List.of(Status.REJECTED))
+                .build(), pageable);
 
         assertThat(result.size(), equalTo(1));
         assertThat(result.get(0).getId(), equalTo(booking.getId()));
     }
 
     @Test
-    public void findFirstLastBooking() {
+    public void findLastBookingsByItemIdsSkipsCurrent() {
         final Booking lastBooking = Booking.builder()
                 .start(LocalDateTime.now().minusDays(5))
                 .end(LocalDateTime.now().minusDays(3))
@@ -331,13 +394,14 @@ public class BookingRepositoryTest {
                 .build();
         em.persist(currentBooking);
 
-        final var result = bookingRepository.findFirstLastBooking(item.getId()).get();
+        final var result = bookingRepository.findLastBookingsByItemIds(List.of(item.getId()), LocalDateTime.now());
 
-        assertThat(result.getId(), equalTo(lastBooking.getId()));
+        assertThat(result.size(), equalTo(1));
+        assertThat(result.get(0).getId(), equalTo(lastBooking.getId()));
     }
 
     @Test
-    public void findFirstNextBooking() {
+    public void findNextBookingsByItemIdsSkipsCurrent() {
         final Booking lastBooking = Booking.builder()
                 .start(LocalDateTime.now().minusDays(5))
                 .end(LocalDateTime.now().minusDays(3))
@@ -363,9 +427,10 @@ public class BookingRepositoryTest {
                 .build();
         em.persist(currentBooking);
 
-        final var result = bookingRepository.findFirstNextBooking(item.getId()).get();
+        final var result = bookingRepository.findNextBookingsByItemIds(List.of(item.getId()), LocalDateTime.now());
 
-        assertThat(result.getId(), equalTo(nextBooking.getId()));
+        assertThat(result.size(), equalTo(1));
+        assertThat(result.get(0).getId(), equalTo(nextBooking.getId()));
     }
 
     @Test
@@ -386,4 +451,220 @@ public class BookingRepositoryTest {
 
         assertTrue(result);
     }
+
+    @Test
+    public void findLastAndNextBookingsByItemIds() {
+        final Item otherItem = Item.builder()
+                .name("Отвёртка")
+                .description("Крестовая отвёртка")
+                .available(true)
+                .owner(owner)
+                .build();
+        em.persist(otherItem);
+        final Booking olderBooking = Booking.builder()
+                .start(LocalDateTime.now().minusDays(7))
+                .end(LocalDateTime.now().minusDays(6))
+                .item(item)
+                .booker(user)
+                .status(Status.APPROVED)
+                .build();
+        em.persist(olderBooking);
+        final Booking lastBooking = Booking.builder()
+                .start(LocalDateTime.now().minusDays(5))
+                .end(LocalDateTime.now().minusDays(3))
+                .item(item)
+                .booker(user)
+                .status(Status.APPROVED)
+                .build();
+        em.persist(lastBooking);
+        final Booking nextBooking = Booking.builder()
+                .start(LocalDateTime.now().plusDays(3))
+                .end(LocalDateTime.now().plusDays(5))
+                .item(otherItem)
+                .booker(user)
+                .status(Status.APPROVED)
+                .build();
+        em.persist(nextBooking);
+        final Booking laterBooking = Booking.builder()
+                .start(LocalDateTime.now().plusDays(6))
+                .end(LocalDateTime.now().plusDays(7))
+                .item(otherItem)
+                .booker(user)
+                .status(Status.APPROVED)
+                .build();
+        em.persist(laterBooking);
+        final Booking waitingBooking = Booking.builder()
+                .start(LocalDateTime.now().plusDays(1))
+                .end(LocalDateTime.now().plusDays(2))
+                .item(otherItem)
+                .booker(user)
+                .status(Status.WAITING)
+                .build();
+        em.persist(waitingBooking);
+        final List<Long> itemIds = List.of(item.getId(), otherItem.getId());
+
+        final LocalDateTime now = LocalDateTime.now();
+        final var last = bookingRepository.findLastBookingsByItemIds(itemIds, now);
+        final var next = bookingRepository.findNextBookingsByItemIds(itemIds, now);
+        final var ends = bookingRepository.findNearestEndsByItemIds(itemIds, now);
+
+        assertThat(last.size(), equalTo(1));
+        assertThat(last.get(0).getId(), equalTo(lastBooking.getId()));
+        assertThat(last.get(0).getItemId(), equalTo(item.getId()));
+        assertThat(last.get(0).getBookerId(), equalTo(user.getId()));
+        assertThat(last.get(0).getStatus(), equalTo(Status.APPROVED));
+        assertThat(next.size(), equalTo(1));
+        assertThat(next.get(0).getId(), equalTo(nextBooking.getId()));
+        assertThat(next.get(0).getItemId(), equalTo(otherItem.getId()));
+        assertThat(next.get(0).getBookerId(), equalTo(user.getId()));
+        assertThat(ends.size(), equalTo(1));
+        assertThat(ends.get(0).getItemId(), equalTo(otherItem.getId()));
+    }
+
+    @Test
+    public void existsOverlappingBooking() {
+        final LocalDateTime start = LocalDateTime.now().plusDays(1).truncatedTo(ChronoUnit.SECONDS);
+        final LocalDateTime end = LocalDateTime.now().plusDays(3).truncatedTo(ChronoUnit.SECONDS);
+        final Booking booking = Booking.builder()
+                .start(start)
+                .end(end)
+                .item(item)
+                .booker(user)
+                .status(Status.WAITING)
+                .build();
+        em.persist(booking);
+        final List<Status> status = List.of(Status.APPROVED, Status.WAITING);
+
+        assertTrue(bookingRepository.existsOverlappingBooking(item.getId(), start.plusDays(1), end.plusDays(1), status));
+        assertThat(bookingRepository.existsOverlappingBooking(item.getId(), end, end.plusDays(1), status),
+                equalTo(false));
+        assertThat(bookingRepository.existsOverlappingBooking(item.getId(), start, end, List.of(Status.APPROVED)),
+                equalTo(false));
+        assertThat(bookingRepository.existsOverlappingBookingExcept(item.getId(), start, end, status, booking.getId()),
+                equalTo(false));
+    }
+
+    @Test
+    public void findAllByItemIdAndStatusInAndEndAfterOrderByStartAsc() {
+        final LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+        final Booking pastBooking = Booking.builder()
+                .start(now.minusDays(3))
+                .end(now.minusDays(2))
+                .item(item)
+                .booker(user)
+                .status(Status.APPROVED)
+                .build();
+        em.persist(pastBooking);
+        final Booking laterBooking = Booking.builder()
+                .start(now.plusDays(5))
+                .end(now.plusDays(6))
+                .item(item)
+                .booker(user)
+                .status(Status.WAITING)
+                .build();
+        em.persist(laterBooking);
+        final Booking nextBooking = Booking.builder()
+                .start(now.plusDays(1))
+                .end(now.plusDays(2))
+                .item(item)
+                .booker(user)
+                .status(Status.APPROVED)
+                .build();
+        em.persist(nextBooking);
+        final Booking rejectedBooking = Booking.builder()
+                .start(now.plusDays(3))
+                .end(now.plusDays(4))
+                .item(item)
+                .booker(user)
+                .status(Status.REJECTED)
+                .build();
+        em.persist(rejectedBooking);
+
+        final var result = bookingRepository.findAllByItemIdAndStatusInAndEndAfterOrderByStartAsc(
+                item.getId(), List.of(Status.APPROVED, Status.WAITING), now);
+
+        assertThat(result.size(), equalTo(2));
+        assertThat(result.get(0).getStart(), equalTo(nextBooking.getStart()));
+        assertThat(result.get(1).getEnd(), equalTo(laterBooking.getEnd()));
+    }
+
+    @Test
+    public void searchAfterCursor() {
+        final LocalDateTime start = LocalDateTime.now().plusDays(1).truncatedTo(ChronoUnit.SECONDS);
+        final Booking first = Booking.builder()
+                .start(start.plusDays(1))
+                .end(start.plusDays(2))
+                .item(item)
+                .booker(user)
+                .status(Status.WAITING)
+                .build();
+        em.persist(first);
+        final Booking second = Booking.builder()
+                .start(start)
+                .end(start.plusDays(1))
+                .item(item)
+                .booker(user)
+                .status(Status.WAITING)
+                .build();
+        em.persist(second);
+        final Booking third = Booking.builder()
+                .start(start)
+                .end(start.plusDays(1))
+                .item(item)
+                .booker(user)
+                .status(Status.REJECTED)
+                .build();
+        em.persist(third);
+        final Pageable firstPage = PageRequest.of(0, 2);
+
+        final BookingFilter filter = BookingFilter.builder()
+                .role(BookingFilter.Role.BOOKER)
+                .userId(user.getId())
+                .build();
+
+        final List<BookingPrintView> page = bookingRepository.search(filter.toBuilder()
+                .cursor(new BookingCursor(first.getStart(), first.getId() + 1))
+                .build(), firstPage);
+        final List<BookingPrintView> nextPage = bookingRepository.search(filter.toBuilder()
+                .cursor(new BookingCursor(page.get(1).getStartDate(), page.get(1).getId()))
+                .build(), firstPage);
+        final List<BookingPrintView> forOwner = bookingRepository.search(BookingFilter.builder()
+                .role(BookingFilter.Role.OWNER)
+                .userId(owner.getId())
+                .statuses(List.of(Status.WAITING))
+                .cursor(new BookingCursor(first.getStart(), first.getId()))
+                .build(), firstPage);
+
+        assertThat(page.size(), equalTo(2));
+        assertThat(page.get(0).getId(), equalTo(first.getId()));
+        assertThat(page.get(1).getId(), equalTo(third.getId()));
+        assertThat(nextPage.size(), equalTo(1));
+        assertThat(nextPage.get(0).getId(), equalTo(second.getId()));
+        assertThat(forOwner.size(), equalTo(1));
+        assertThat(forOwner.get(0).getId(), equalTo(second.getId()));
+    }
+
+    @Test
+    public void persistFillsOwnerId() {
+        final Booking booking = Booking.builder()
+                .start(LocalDateTime.now().plusDays(1))
+                .end(LocalDateTime.now().plusDays(2))
+                .item(item)
+                .booker(user)
+                .status(Status.WAITING)
+                .build();
+        em.persist(booking);
+        em.flush();
+        em.clear();
+
+        final Booking result = bookingRepository.findById(booking.getId()).get();
+        final List<BookingPrintView> forOwner = bookingRepository.search(BookingFilter.builder()
+                .role(BookingFilter.Role.OWNER)
+                .userId(owner.getId())
+                .build(), pageable);
+
+        assertThat(result.getOwnerId(), equalTo(owner.getId()));
+        assertThat(forOwner.size(), equalTo(1));
+        assertThat(forOwner.get(0).getId(), equalTo(booking.getId()));
+    }
 }
@@ -10,6 +10,7 @@ import ru.practicum.shareit.booking.BookingRepository;
 import ru.practicum.shareit.booking.dto.BookingCreateDto;
 import ru.practicum.shareit.booking.dto.BookingPrintDto;
 import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.enums.State;
 import ru.practicum.shareit.enums.Status;
 import ru.practicum.shareit.exceptions.*;
 import ru.practicum.shareit.item.model.Item;
@@ -19,6 +20,9 @@ import ru.practicum.shareit.user.UserRepository;
 
 import javax.persistence.EntityManager;
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
 
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.equalTo;
@@ -83,8 +87,8 @@ public class BookingServiceImplIntegratedTest {
         final BookingPrintDto bookingPrintDto = BookingPrintDto.builder()
                 .start(start)
                 .end(end)
-                .item(item)
-                .booker(user)
+                .item(new BookingPrintDto.ItemInfo(item.getId(), item.getName()))
+                .booker(new BookingPrintDto.BookerInfo(user.getId()))
                 .status(Status.WAITING)
                 .build();
 
@@ -98,6 +102,29 @@ public class BookingServiceImplIntegratedTest {
         assertThat(result.getStatus(), equalTo(bookingPrintDto.getStatus()));
     }
 
+    @Test
+    void createBookingOverlapExceptionTest() {
+        final LocalDateTime start = LocalDateTime.now().plusDays(1);
+        final LocalDateTime end = LocalDateTime.now().plusDays(3);
+        bookingService.create(user.getId(), BookingCreateDto.builder()
+                .start(start)
+                .end(end)
+                .itemId(item.getId())
+                .build());
+        final BookingCreateDto bookingCreateDto = BookingCreateDto.builder()
+                .start(start.plusDays(1))
+                .end(end.plusDays(1))
+                .itemId(item.getId())
+                .build();
+
+        final var exception = assertThrows(
+                BookingOverlapException.class,
+                () -> bookingService.create(user.getId(), bookingCreateDto)
+        );
+
+        assertThat("Вещь уже забронирована на указанный период", equalTo(exception.getMessage()));
+    }
+
     @Test
     void createUserNotFoundExceptionTest() {
         final LocalDateTime start = LocalDateTime.now().plusDays(1);
@@ -183,9 +210,9 @@ public class BookingServiceImplIntegratedTest {
         final Long userId = user.getId();
         final int from = 0;
         final int size = 10;
-        final String state = "ALL";
-        LocalDateTime start = LocalDateTime.now().plusDays(1);
-        LocalDateTime end = LocalDateTime.now().plusDays(3);
+        final State state = State.ALL;
+        LocalDateTime start = LocalDateTime.now().plusDays(1).truncatedTo(ChronoUnit.SECONDS);
+        LocalDateTime end = LocalDateTime.now().plusDays(3).truncatedTo(ChronoUnit.SECONDS);
         booking = Booking.builder()
                 .start(start)
                 .end(end)
@@ -198,8 +225,8 @@ public class BookingServiceImplIntegratedTest {
                 .id(booking.getId())
                 .start(start)
                 .end(end)
-                .item(item)
-                .booker(user)
+                .item(new BookingPrintDto.ItemInfo(item.getId(), item.getName()))
+                .booker(new BookingPrintDto.BookerInfo(user.getId()))
                 .status(Status.APPROVED)
                 .build();
 
@@ -219,9 +246,9 @@ public class BookingServiceImplIntegratedTest {
         final Long userId = user.getId();
         final int from = 0;
         final int size = 10;
-        final String state = "REJECTED";
-        LocalDateTime start = LocalDateTime.now().plusDays(1);
-        LocalDateTime end = LocalDateTime.now().plusDays(3);
+        final State state = State.REJECTED;
+        LocalDateTime start = LocalDateTime.now().plusDays(1).truncatedTo(ChronoUnit.SECONDS);
+        LocalDateTime end = LocalDateTime.now().plusDays(3).truncatedTo(ChronoUnit.SECONDS);
         booking = Booking.builder()
                 .start(start)
                 .end(end)
@@ -234,8 +261,8 @@ public class BookingServiceImplIntegratedTest {
                 .id(booking.getId())
                 .start(start)
                 .end(end)
-                .item(item)
-                .booker(user)
+                .item(new BookingPrintDto.ItemInfo(item.getId(), item.getName()))
+                .booker(new BookingPrintDto.BookerInfo(user.getId()))
                 .status(Status.REJECTED)
                 .build();
 
@@ -255,9 +282,9 @@ public class BookingServiceImplIntegratedTest {
         final Long userId = user.getId();
         final int from = 0;
         final int size = 10;
-        final String state = "FUTURE";
-        LocalDateTime start = LocalDateTime.now().plusDays(1);
-        LocalDateTime end = LocalDateTime.now().plusDays(3);
+        final State state = State.FUTURE;
+        LocalDateTime start = LocalDateTime.now().plusDays(1).truncatedTo(ChronoUnit.SECONDS);
+        LocalDateTime end = LocalDateTime.now().plusDays(3).truncatedTo(ChronoUnit.SECONDS);
         booking = Booking.builder()
                 .start(start)
                 .end(end)
@@ -270,8 +297,8 @@ public class BookingServiceImplIntegratedTest {
                 .id(booking.getId())
                 .start(start)
                 .end(end)
-                .item(item)
-                .booker(user)
+                .item(new BookingPrintDto.ItemInfo(item.getId(), item.getName()))
+                .booker(new BookingPrintDto.BookerInfo(user.getId()))
                 .status(Status.APPROVED)
                 .build();
 
@@ -292,9 +319,9 @@ public class BookingServiceImplIntegratedTest {
         final Long userId = user.getId();
         final int from = 0;
         final int size = 10;
-        final String state = "WAITING";
-        LocalDateTime start = LocalDateTime.now().plusDays(1);
-        LocalDateTime end = LocalDateTime.now().plusDays(3);
+        final State state = State.WAITING;
+        LocalDateTime start = LocalDateTime.now().plusDays(1).truncatedTo(ChronoUnit.SECONDS);
+        LocalDateTime end = LocalDateTime.now().plusDays(3).truncatedTo(ChronoUnit.SECONDS);
         booking = Booking.builder()
                 .start(start)
                 .end(end)
@@ -307,8 +334,8 @@ public class BookingServiceImplIntegratedTest {
                 .id(booking.getId())
                 .start(start)
                 .end(end)
-                .item(item)
-                .booker(user)
+                .item(new BookingPrintDto.ItemInfo(item.getId(), item.getName()))
+                .booker(new BookingPrintDto.BookerInfo(user.getId()))
                 .status(Status.WAITING)
                 .build();
 
@@ -328,9 +355,9 @@ public class BookingServiceImplIntegratedTest {
         final Long userId = user.getId();
         final int from = 0;
         final int size = 10;
-        final String state = "CURRENT";
-        LocalDateTime start = LocalDateTime.now().minusDays(1);
-        LocalDateTime end = LocalDateTime.now().plusDays(3);
+        final State state = State.CURRENT;
+        LocalDateTime start = LocalDateTime.now().minusDays(1).truncatedTo(ChronoUnit.SECONDS);
+        LocalDateTime end = LocalDateTime.now().plusDays(3).truncatedTo(ChronoUnit.SECONDS);
         booking = Booking.builder()
                 .start(start)
                 .end(end)
@@ -343,8 +370,8 @@ public class BookingServiceImplIntegratedTest {
                 .id(booking.getId())
                 .start(start)
                 .end(end)
-                .item(item)
-                .booker(user)
+                .item(new BookingPrintDto.ItemInfo(item.getId(), item.getName()))
+                .booker(new BookingPrintDto.BookerInfo(user.getId()))
                 .status(Status.APPROVED)
                 .build();
 
@@ -364,9 +391,9 @@ public class BookingServiceImplIntegratedTest {
         final Long userId = user.getId();
         final int from = 0;
         final int size = 10;
-        final String state = "PAST";
-        LocalDateTime start = LocalDateTime.now().minusDays(3);
-        LocalDateTime end = LocalDateTime.now().minusDays(1);
+        final State state = State.PAST;
+        LocalDateTime start = LocalDateTime.now().minusDays(3).truncatedTo(ChronoUnit.SECONDS);
+        LocalDateTime end = LocalDateTime.now().minusDays(1).truncatedTo(ChronoUnit.SECONDS);
         booking = Booking.builder()
                 .start(start)
                 .end(end)
@@ -379,8 +406,8 @@ public class BookingServiceImplIntegratedTest {
                 .id(booking.getId())
                 .start(start)
                 .end(end)
-                .item(item)
-                .booker(user)
+                .item(new BookingPrintDto.ItemInfo(item.getId(), item.getName()))
+                .booker(new BookingPrintDto.BookerInfo(user.getId()))
                 .status(Status.APPROVED)
                 .build();
 
@@ -399,9 +426,9 @@ public class BookingServiceImplIntegratedTest {
     void findAllByStateUserNotFoundExceptionTest() {
         final int from = 0;
         final int size = 10;
-        final String state = "ALL";
-        LocalDateTime start = LocalDateTime.now().plusDays(1);
-        LocalDateTime end = LocalDateTime.now().plusDays(3);
+        final State state = State.ALL;
+        LocalDateTime start = LocalDateTime.now().plusDays(1).truncatedTo(ChronoUnit.SECONDS);
+        LocalDateTime end = LocalDateTime.now().plusDays(3).truncatedTo(ChronoUnit.SECONDS);
         booking = Booking.builder()
                 .start(start)
                 .end(end)
@@ -425,8 +452,8 @@ public class BookingServiceImplIntegratedTest {
         final int from = 0;
         final int size = 10;
         final String state = "INCORRECT";
-        LocalDateTime start = LocalDateTime.now().plusDays(1);
-        LocalDateTime end = LocalDateTime.now().plusDays(3);
+        LocalDateTime start = LocalDateTime.now().plusDays(1).truncatedTo(ChronoUnit.SECONDS);
+        LocalDateTime end = LocalDateTime.now().plusDays(3).truncatedTo(ChronoUnit.SECONDS);
         booking = Booking.builder()
                 .start(start)
                 .end(end)
@@ -438,7 +465,7 @@ public class BookingServiceImplIntegratedTest {
 
         final var exception = assertThrows(
                 UnsupportedStateException.class,
-                () -> bookingService.findAllByState(userId, state, from, size));
+                () -> bookingService.findAllByState(userId, State.from(state), from, size));
 
         assertThat("Unknown state: " + state, equalTo(exception.getMessage()));
     }
@@ -448,9 +475,9 @@ public class BookingServiceImplIntegratedTest {
         final Long ownerId = owner.getId();
         final int from = 0;
         final int size = 10;
-        final String state = "ALL";
-        LocalDateTime start = LocalDateTime.now().plusDays(1);
-        LocalDateTime end = LocalDateTime.now().plusDays(3);
+        final State state = State.ALL;
+        LocalDateTime start = LocalDateTime.now().plusDays(1).truncatedTo(ChronoUnit.SECONDS);
+        LocalDateTime end = LocalDateTime.now().plusDays(3).truncatedTo(ChronoUnit.SECONDS);
         booking = Booking.builder()
                 .start(start)
                 .end(end)
@@ -463,8 +490,8 @@ public class BookingServiceImplIntegratedTest {
                 .id(booking.getId())
                 .start(start)
                 .end(end)
-                .item(item)
-                .booker(user)
+                .item(new BookingPrintDto.ItemInfo(item.getId(), item.getName()))
+                .booker(new BookingPrintDto.BookerInfo(user.getId()))
                 .status(Status.APPROVED)
                 .build();
 
@@ -484,9 +511,9 @@ public class BookingServiceImplIntegratedTest {
         final Long ownerId = owner.getId();
         final int from = 0;
         final int size = 10;
-        final String state = "REJECTED";
-        LocalDateTime start = LocalDateTime.now().plusDays(1);
-        LocalDateTime end = LocalDateTime.now().plusDays(3);
+        final State state = State.REJECTED;
+        LocalDateTime start = LocalDateTime.now().plusDays(1).truncatedTo(ChronoUnit.SECONDS);
+        LocalDateTime end = LocalDateTime.now().plusDays(3).truncatedTo(ChronoUnit.SECONDS);
         booking = Booking.builder()
                 .start(start)
                 .end(end)
@@ -499,8 +526,8 @@ public class BookingServiceImplIntegratedTest {
                 .id(booking.getId())
                 .start(start)
                 .end(end)
-                .item(item)
-                .booker(user)
+                .item(new BookingPrintDto.ItemInfo(item.getId(), item.getName()))
+                .booker(new BookingPrintDto.BookerInfo(user.getId()))
                 .status(Status.REJECTED)
                 .build();
 
@@ -520,9 +547,9 @@ public class BookingServiceImplIntegratedTest {
         final Long ownerId = owner.getId();
         final int from = 0;
         final int size = 10;
-        final String state = "FUTURE";
-        LocalDateTime start = LocalDateTime.now().plusDays(1);
-        LocalDateTime end = LocalDateTime.now().plusDays(3);
+        final State state = State.FUTURE;
+        LocalDateTime start = LocalDateTime.now().plusDays(1).truncatedTo(ChronoUnit.SECONDS);
+        LocalDateTime end = LocalDateTime.now().plusDays(3).truncatedTo(ChronoUnit.SECONDS);
         booking = Booking.builder()
                 .start(start)
                 .end(end)
@@ -535,8 +562,8 @@ public class BookingServiceImplIntegratedTest {
                 .id(booking.getId())
                 .start(start)
                 .end(end)
-                .item(item)
-                .booker(user)
+                .item(new BookingPrintDto.ItemInfo(item.getId(), item.getName()))
+                .booker(new BookingPrintDto.BookerInfo(user.getId()))
                 .status(Status.APPROVED)
                 .build();
 
@@ -557,9 +584,9 @@ public class BookingServiceImplIntegratedTest {
         final Long ownerId = owner.getId();
         final int from = 0;
         final int size = 10;
-        final String state = "WAITING";
-        LocalDateTime start = LocalDateTime.now().plusDays(1);
-        LocalDateTime end = LocalDateTime.now().plusDays(3);
+        final State state = State.WAITING;
+        LocalDateTime start = LocalDateTime.now().plusDays(1).truncatedTo(ChronoUnit.SECONDS);
+        LocalDateTime end = LocalDateTime.now().plusDays(3).truncatedTo(ChronoUnit.SECONDS);
         booking = Booking.builder()
                 .start(start)
                 .end(end)
@@ -572,8 +599,8 @@ public class BookingServiceImplIntegratedTest {
                 .id(booking.getId())
                 .start(start)
                 .end(end)
-                .item(item)
-                .booker(user)
+                .item(new BookingPrintDto.ItemInfo(item.getId(), item.getName()))
+                .booker(new BookingPrintDto.BookerInfo(user.getId()))
                 .status(Status.WAITING)
                 .build();
 
@@ -593,9 +620,9 @@ public class BookingServiceImplIntegratedTest {
         final Long ownerId = owner.getId();
         final int from = 0;
         final int size = 10;
-        final String state = "CURRENT";
-        LocalDateTime start = LocalDateTime.now().minusDays(1);
-        LocalDateTime end = LocalDateTime.now().plusDays(3);
+        final State state = State.CURRENT;
+        LocalDateTime start = LocalDateTime.now().minusDays(1).truncatedTo(ChronoUnit.SECONDS);
+        LocalDateTime end = LocalDateTime.now().plusDays(3).truncatedTo(ChronoUnit.SECONDS);
         booking = Booking.builder()
                 .start(start)
                 .end(end)
@@ -608,8 +635,8 @@ public class BookingServiceImplIntegratedTest {
                 .id(booking.getId())
                 .start(start)
                 .end(end)
-                .item(item)
-                .booker(user)
+                .item(new BookingPrintDto.ItemInfo(item.getId(), item.getName()))
+                .booker(new BookingPrintDto.BookerInfo(user.getId()))
                 .status(Status.APPROVED)
                 .build();
 
@@ -629,9 +656,9 @@ public class BookingServiceImplIntegratedTest {
         final Long ownerId = owner.getId();
         final int from = 0;
         final int size = 10;
-        final String state = "PAST";
-        LocalDateTime start = LocalDateTime.now().minusDays(3);
-        LocalDateTime end = LocalDateTime.now().minusDays(1);
+        final State state = State.PAST;
+        LocalDateTime start = LocalDateTime.now().minusDays(3).truncatedTo(ChronoUnit.SECONDS);
+        LocalDateTime end = LocalDateTime.now().minusDays(1).truncatedTo(ChronoUnit.SECONDS);
         booking = Booking.builder()
                 .start(start)
                 .end(end)
@@ -644,8 +671,8 @@ public class BookingServiceImplIntegratedTest {
                 .id(booking.getId())
                 .start(start)
                 .end(end)
-                .item(item)
-                .booker(user)
+                .item(new BookingPrintDto.ItemInfo(item.getId(), item.getName()))
+                .booker(new BookingPrintDto.BookerInfo(user.getId()))
                 .status(Status.APPROVED)
                 .build();
 
@@ -665,9 +692,9 @@ public class BookingServiceImplIntegratedTest {
     void findAllByStateForOwnerUserNotFoundExceptionTest() {
         final int from = 0;
         final int size = 10;
-        final String state = "ALL";
-        LocalDateTime start = LocalDateTime.now().plusDays(1);
-        LocalDateTime end = LocalDateTime.now().plusDays(3);
+        final State state = State.ALL;
+        LocalDateTime start = LocalDateTime.now().plusDays(1).truncatedTo(ChronoUnit.SECONDS);
+        LocalDateTime end = LocalDateTime.now().plusDays(3).truncatedTo(ChronoUnit.SECONDS);
         booking = Booking.builder()
                 .start(start)
                 .end(end)
@@ -690,8 +717,8 @@ public class BookingServiceImplIntegratedTest {
         final int from = 0;
         final int size = 10;
         final String state = "INCORRECT";
-        LocalDateTime start = LocalDateTime.now().plusDays(1);
-        LocalDateTime end = LocalDateTime.now().plusDays(3);
+        LocalDateTime start = LocalDateTime.now().plusDays(1).truncatedTo(ChronoUnit.SECONDS);
+        LocalDateTime end = LocalDateTime.now().plusDays(3).truncatedTo(ChronoUnit.SECONDS);
         booking = Booking.builder()
                 .start(start)
                 .end(end)
@@ -703,9 +730,101 @@ public class BookingServiceImplIntegratedTest {
 
         final var exception = assertThrows(
                 UnsupportedStateException.class,
-                () -> bookingService.findAllByStateForOwner(userId, state, from, size));
+                () -> bookingService.findAllByStateForOwner(userId, State.from(state), from, size));
 
         assertThat("Unknown state: " + state, equalTo(exception.getMessage()));
     }
 
+
+    @Test
+    void exportAllByStateForOwnerTest() {
+        LocalDateTime start = LocalDateTime.now().plusDays(1).truncatedTo(ChronoUnit.SECONDS);
+        List<Booking> bookings = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            bookings.add(bookingRepository.save(Booking.builder()
+                    .start(start.plusDays(i * 2L))
+                    .end(start.plusDays(i * 2L + 1))
+                    .item(item)
+                    .booker(user)
+                    .status(i == 1 ? Status.REJECTED : Status.WAITING)
+                    .build()));
+        }
+        em.flush();
+        List<BookingPrintDto> result = new ArrayList<>();
+
+        bookingService.exportAllByStateForOwner(owner.getId(), State.WAITING, result::add);
+
+        assertThat(result.size(), equalTo(2));
+        assertThat(result.get(0).getId(), equalTo(bookings.get(2).getId()));
+        assertThat(result.get(1).getId(), equalTo(bookings.get(0).getId()));
+        assertThat(result.get(0).getItem(), equalTo(new BookingPrintDto.ItemInfo(item.getId(), item.getName())));
+    }
+
+    @Test
+    void exportAllByStateUserNotFoundExceptionTest() {
+        final var exception = assertThrows(
+                UserNotFoundException.class,
+                () -> bookingService.exportAllByState(9999L, State.ALL, booking -> {
+                }));
+
+        assertThat("Пользователя с таким id не существует", equalTo(exception.getMessage()));
+    }
+
+    @Test
+    void createAllTest() {
+        LocalDateTime start = LocalDateTime.now().plusDays(1).truncatedTo(ChronoUnit.SECONDS);
+        Item ownItem = itemRepository.save(Item.builder()
+                .name("Лестница")
+                .description("Стремянка")
+                .available(true)
+                .owner(user)
+                .build());
+        bookingRepository.save(Booking.builder()
+                .start(start.plusDays(10))
+                .end(start.plusDays(12))
+                .item(item)
+                .booker(owner)
+                .status(Status.APPROVED)
+                .build());
+        List<BookingCreateDto> bookingDtos = List.of(
+                batchEntry(item.getId(), start, start.plusDays(1)),
+                batchEntry(item.getId(), start.plusHours(12), start.plusDays(2)),
+                batchEntry(item.getId(), start.plusDays(11), start.plusDays(13)),
+                batchEntry(ownItem.getId(), start, start.plusDays(1)),
+                batchEntry(9999L, start, start.plusDays(1)),
+                batchEntry(item.getId(), start.plusDays(3), start.plusDays(2)),
+                batchEntry(item.getId(), start.plusDays(5), start.plusDays(6)));
+
+        final var results = bookingService.createAll(user.getId(), bookingDtos);
+
+        assertThat(results.size(), equalTo(7));
+        assertNotNull(results.get(0).getBooking());
+        assertThat(results.get(0).getBooking().getStatus(), equalTo(Status.WAITING));
+        assertThat(results.get(1).getError(), equalTo("Вещь уже забронирована на указанный период"));
+        assertThat(results.get(2).getError(), equalTo("Вещь уже забронирована на указанный период"));
+        assertThat(results.get(3).getError(), equalTo("Владелец не может создать бронь на свою вещь"));
+        assertThat(results.get(4).getError(), equalTo("Item с идентификатором 9999 не найден."));
+        assertThat(results.get(5).getError(),
+                equalTo("StartTime не может быть после EndTime или равняться ему"));
+        assertNotNull(results.get(6).getBooking());
+        assertThat(results.get(6).getIndex(), equalTo(6));
+        assertThat(bookingService.findAllByState(user.getId(), State.WAITING, 0, 10).size(), equalTo(2));
+    }
+
+    @Test
+    void createAllBatchSizeExceptionTest() {
+        final var exception = assertThrows(
+                BatchSizeException.class,
+                () -> bookingService.createAll(user.getId(), List.of()));
+
+        assertThat("Пакет должен содержать от 1 до 1000 бронирований", equalTo(exception.getMessage()));
+    }
+
+    private static BookingCreateDto batchEntry(Long itemId, LocalDateTime start, LocalDateTime end) {
+        return BookingCreateDto.builder()
+                .itemId(itemId)
+                .start(start)
+                .end(end)
+                .build();
+    }
 }
@@ -4,27 +4,39 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import ru.practicum.shareit.booking.BookingFilter;
 import ru.practicum.shareit.booking.BookingMapper;
 import ru.practicum.shareit.booking.BookingRepository;
+import ru.practicum.shareit.booking.dto.BookingCreateDto;
 import ru.practicum.shareit.booking.dto.BookingPrintDto;
 import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.enums.State;
 import ru.practicum.shareit.enums.Status;
 import ru.practicum.shareit.exceptions.AlreadyExistsStatusException;
 import ru.practicum.shareit.exceptions.BookingNotFoundException;
+import ru.practicum.shareit.exceptions.BookingOverlapException;
 import ru.practicum.shareit.exceptions.UserAccessException;
 import ru.practicum.shareit.exceptions.UserNotFoundException;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.ItemRepository;
 import ru.practicum.shareit.user.User;
-import ru.practicum.shareit.user.UserRepository;
+import ru.practicum.shareit.user.UserCache;
+import ru.practicum.shareit.user.UserDto;
 
+import java.sql.SQLException;
+import java.time.Clock;
 import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
 import java.util.Optional;
 
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.nullValue;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.Mockito.*;
 
@@ -37,11 +49,18 @@ class BookingServiceImplTest {
     private BookingRepository bookingRepository;
 
     @Mock
-    private UserRepository userRepository;
+    private UserCache userCache;
 
     @Mock
     private ItemRepository itemRepository;
 
+    @Mock
+    private ItemBookingSummaryService itemBookingSummaryService;
+
+    private final LocalDateTime now = LocalDateTime.of(2022, 9, 1, 12, 0);
+
+    private final Clock clock = Clock.fixed(now.atZone(ZoneId.systemDefault()).toInstant(), ZoneId.systemDefault());
+
     private final User user = new User(1L, "updateName", "updateName@user.com");
 
     private final User owner = new User(2L, "name", "name@user.com");
@@ -56,8 +75,8 @@ class BookingServiceImplTest {
             .id(1L)
             .start(start)
             .end(end)
-            .item(item)
-            .booker(user)
+            .item(new BookingPrintDto.ItemInfo(item.getId(), item.getName()))
+            .booker(new BookingPrintDto.BookerInfo(user.getId()))
             .status(Status.APPROVED)
             .build();
 
@@ -72,7 +91,8 @@ class BookingServiceImplTest {
 
     @BeforeEach
     void setUp() {
-        bookingService = new BookingServiceImpl(bookingRepository, userRepository, itemRepository);
+        bookingService = new BookingServiceImpl(bookingRepository, userCache, itemRepository, itemBookingSummaryService,
+                clock);
     }
 
     //    @AfterEach
@@ -83,16 +103,34 @@ class BookingServiceImplTest {
 //
 //    }
 
+    @Test
+    void findAllByStateCurrentUsesClockTest() {
+        final Long userId = 1L;
+
+        when(userCache.findById(userId))
+                .thenReturn(Optional.of(UserDto.builder().id(userId).build()));
+        when(bookingRepository.search(any(), any()))
+                .thenReturn(List.of());
+
+        bookingService.findAllByState(userId, State.CURRENT, 0, 10);
+
+        final ArgumentCaptor<BookingFilter> filter = ArgumentCaptor.forClass(BookingFilter.class);
+        verify(bookingRepository).search(filter.capture(), any());
+        assertThat(filter.getValue().getRole(), equalTo(BookingFilter.Role.BOOKER));
+        assertThat(filter.getValue().getUserId(), equalTo(userId));
+        assertThat(filter.getValue().getStartUntil(), equalTo(now));
+        assertThat(filter.getValue().getEndAfter(), equalTo(now));
+        assertThat(filter.getValue().getStartAfter(), nullValue());
+    }
+
     @Test
     void findByIdTest() {
         final Long userId = 1L;
         final Long bookingId = 1L;
 
-        when(userRepository.existsById(userId))
-                .thenReturn(true);
-        when(bookingRepository.existsById(bookingId))
-                .thenReturn(true);
-        when(bookingRepository.findById(bookingId))
+        when(userCache.findById(userId))
+                .thenReturn(Optional.of(UserDto.builder().id(userId).build()));
+        when(bookingRepository.findWithItemById(bookingId))
                 .thenReturn(Optional.of(booking));
 
         final var result = bookingService.findById(userId, bookingId);
@@ -104,12 +142,10 @@ class BookingServiceImplTest {
         assertThat(result.getBooker(), equalTo(bookingPrintDto.getBooker()));
         assertThat(result.getStatus(), equalTo(bookingPrintDto.getStatus()));
 
-        verify(userRepository, times(1))
-                .existsById(userId);
+        verify(userCache, times(1))
+                .findById(userId);
         verify(bookingRepository, times(1))
-                .existsById(bookingId);
-        verify(bookingRepository, times(2))
-                .findById(bookingId);
+                .findWithItemById(bookingId);
     }
 
     @Test
@@ -128,11 +164,9 @@ class BookingServiceImplTest {
         final Long userId = 3L;
         final Long bookingId = 1L;
 
-        when(userRepository.existsById(userId))
-                .thenReturn(true);
-        when(bookingRepository.existsById(bookingId))
-                .thenReturn(true);
-        when(bookingRepository.findById(bookingId))
+        when(userCache.findById(userId))
+                .thenReturn(Optional.of(UserDto.builder().id(userId).build()));
+        when(bookingRepository.findWithItemById(bookingId))
                 .thenReturn(Optional.of(wrongBooking));
 
         final var exception = assertThrows(
@@ -143,12 +177,10 @@ class BookingServiceImplTest {
         assertThat("Данный пользователь не может получить информацию о заданной вещи.", equalTo(exception.getMessage()));
 
 
-        verify(userRepository, times(1))
-                .existsById(userId);
+        verify(userCache, times(1))
+                .findById(userId);
         verify(bookingRepository, times(1))
-                .existsById(bookingId);
-        verify(bookingRepository, times(1))
-                .findById(bookingId);
+                .findWithItemById(bookingId);
     }
 
     @DisplayName("findById UserNotFoundException")
@@ -157,8 +189,8 @@ class BookingServiceImplTest {
         final Long userId = 1L;
         final Long bookingId = 1L;
 
-        when(userRepository.existsById(userId))
-                .thenReturn(false);
+        when(userCache.findById(userId))
+                .thenReturn(Optional.empty());
 
         final var exception = assertThrows(
                 UserNotFoundException.class,
@@ -167,8 +199,8 @@ class BookingServiceImplTest {
 
         assertThat("Пользователя с таким id не существует", equalTo(exception.getMessage()));
 
-        verify(userRepository, times(1))
-                .existsById(userId);
+        verify(userCache, times(1))
+                .findById(userId);
     }
 
     @DisplayName("findById BookingNotFoundException")
@@ -177,10 +209,10 @@ class BookingServiceImplTest {
         final Long userId = 1L;
         final Long bookingId = 1L;
 
-        when(userRepository.existsById(userId))
-                .thenReturn(true);
-        when(bookingRepository.existsById(bookingId))
-                .thenReturn(false);
+        when(userCache.findById(userId))
+                .thenReturn(Optional.of(UserDto.builder().id(userId).build()));
+        when(bookingRepository.findWithItemById(bookingId))
+                .thenReturn(Optional.empty());
 
         final var exception = assertThrows(
                 BookingNotFoundException.class,
@@ -190,34 +222,10 @@ class BookingServiceImplTest {
         assertThat("Брони с таким id не существует", equalTo(exception.getMessage()));
 
         verify(bookingRepository, times(1))
-                .existsById(bookingId);
+                .findWithItemById(bookingId);
     }
 
 
-    @DisplayName("findById BookingNotFoundException")
-    @Test
-    void findByIdBookingNotFoundExceptionTest() {
-        final Long userId = 1L;
-        final Long bookingId = 1L;
-
-        when(userRepository.existsById(userId))
-                .thenReturn(true);
-        when(bookingRepository.existsById(bookingId))
-                .thenReturn(true);
-        when(bookingRepository.findById(bookingId))
-                .thenReturn(Optional.empty());
-
-        final var exception = assertThrows(
-                BookingNotFoundException.class,
-                () -> bookingService.findById(userId, bookingId)
-        );
-
-        assertThat("Booking с идентификатором " + bookingId + " не найден.", equalTo(exception.getMessage()));
-
-        verify(bookingRepository, times(1))
-                .findById(bookingId);
-    }
-
     @Test
     void approveTest() {
         final Long userId = 2L;
@@ -232,11 +240,9 @@ class BookingServiceImplTest {
                 .status(Status.REJECTED)
                 .build();
 
-        when(userRepository.existsById(userId))
-                .thenReturn(true);
-        when(bookingRepository.existsById(bookingId))
-                .thenReturn(true);
-        when(bookingRepository.findById(bookingId))
+        when(userCache.findById(userId))
+                .thenReturn(Optional.of(UserDto.builder().id(userId).build()));
+        when(bookingRepository.findWithItemById(bookingId))
                 .thenReturn(Optional.of(localBooking));
         when(bookingRepository.save(localBooking))
                 .thenReturn(booking);
@@ -250,17 +256,103 @@ class BookingServiceImplTest {
         assertThat(result.getBooker(), equalTo(bookingPrintDto.getBooker()));
         assertThat(result.getStatus(), equalTo(bookingPrintDto.getStatus()));
 
-        verify(userRepository, times(1))
-                .existsById(userId);
+        verify(userCache, times(1))
+                .findById(userId);
         verify(bookingRepository, times(1))
-                .existsById(bookingId);
-        verify(bookingRepository, times(1))
-                .findById(bookingId);
+                .findWithItemById(bookingId);
         verify(bookingRepository, times(1))
                 .save(localBooking);
     }
 
 
+    @Test
+    void approveBookingOverlapExceptionTest() {
+        final Long userId = 2L;
+        final Long bookingId = 1L;
+        final Booking localBooking = Booking.builder()
+                .id(bookingId)
+                .start(start)
+                .end(end)
+                .item(item)
+                .booker(user)
+                .status(Status.WAITING)
+                .build();
+
+        when(userCache.findById(userId))
+                .thenReturn(Optional.of(UserDto.builder().id(userId).build()));
+        when(bookingRepository.findWithItemById(bookingId))
+                .thenReturn(Optional.of(localBooking));
+        when(bookingRepository.existsOverlappingBookingExcept(item.getId(), start, end, List.of(Status.APPROVED),
+                bookingId))
+                .thenReturn(true);
+
+        final var exception = assertThrows(
+                BookingOverlapException.class,
+                () -> bookingService.approve(userId, bookingId, true)
+        );
+
+        assertThat("Вещь уже забронирована на указанный период", equalTo(exception.getMessage()));
+        assertThat(localBooking.getStatus(), equalTo(Status.WAITING));
+        verify(bookingRepository, never())
+                .save(any());
+    }
+
+    @Test
+    void createBookingOverlapOnFlushTest() {
+        final Long userId = 1L;
+        final BookingCreateDto bookingDto = BookingCreateDto.builder()
+                .start(start)
+                .end(end)
+                .itemId(item.getId())
+                .build();
+
+        when(userCache.findById(userId))
+                .thenReturn(Optional.of(UserDto.builder().id(userId).build()));
+        when(itemRepository.findById(item.getId()))
+                .thenReturn(Optional.of(item));
+        when(bookingRepository.save(any()))
+                .thenAnswer(invocation -> invocation.getArgument(0));
+        doThrow(new DataIntegrityViolationException("could not execute statement",
+                new SQLException("conflicting key value violates exclusion constraint", "23P01")))
+                .when(bookingRepository).flush();
+
+        final var exception = assertThrows(
+                BookingOverlapException.class,
+                () -> bookingService.create(userId, bookingDto)
+        );
+
+        assertThat("Вещь уже забронирована на указанный период", equalTo(exception.getMessage()));
+    }
+
+    @Test
+    void createBookingForeignKeyViolationOnFlushTest() {
+        final Long userId = 1L;
+        final BookingCreateDto bookingDto = BookingCreateDto.builder()
+                .start(start)
+                .end(end)
+                .itemId(item.getId())
+                .build();
+        final DataIntegrityViolationException violation = new DataIntegrityViolationException(
+                "could not execute statement",
+                new SQLException("insert or update on table \"bookings\" violates foreign key constraint", "23503"));
+
+        when(userCache.findById(userId))
+                .thenReturn(Optional.of(UserDto.builder().id(userId).build()));
+        when(itemRepository.findById(item.getId()))
+                .thenReturn(Optional.of(item));
+        when(bookingRepository.save(any()))
+                .thenAnswer(invocation -> invocation.getArgument(0));
+        doThrow(violation)
+                .when(bookingRepository).flush();
+
+        final var exception = assertThrows(
+                DataIntegrityViolationException.class,
+                () -> bookingService.create(userId, bookingDto)
+        );
+
+        assertThat(violation, equalTo(exception));
+    }
+
     @Test
     void approveRejectedTest() {
         final Long userId = 2L;
@@ -275,11 +367,9 @@ class BookingServiceImplTest {
                 .status(Status.REJECTED)
                 .build();
 
-        when(userRepository.existsById(userId))
-                .thenReturn(true);
-        when(bookingRepository.existsById(bookingId))
-                .thenReturn(true);
-        when(bookingRepository.findById(bookingId))
+        when(userCache.findById(userId))
+                .thenReturn(Optional.of(UserDto.builder().id(userId).build()));
+        when(bookingRepository.findWithItemById(bookingId))
                 .thenReturn(Optional.of(localBooking));
         when(bookingRepository.save(localBooking))
                 .thenReturn(booking);
@@ -293,12 +383,10 @@ class BookingServiceImplTest {
         assertThat(result.getBooker(), equalTo(bookingPrintDto.getBooker()));
         assertThat(result.getStatus(), equalTo(Status.REJECTED));
 
-        verify(userRepository, times(1))
-                .existsById(userId);
-        verify(bookingRepository, times(1))
-                .existsById(bookingId);
+        verify(userCache, times(1))
+                .findById(userId);
         verify(bookingRepository, times(1))
-                .findById(bookingId);
+                .findWithItemById(bookingId);
         verify(bookingRepository, times(1))
                 .save(localBooking);
     }
@@ -310,8 +398,8 @@ class BookingServiceImplTest {
         final Long bookingId = 1L;
         final Boolean approved = true;
 
-        when(userRepository.existsById(userId))
-                .thenReturn(false);
+        when(userCache.findById(userId))
+                .thenReturn(Optional.empty());
 
         final var exception = assertThrows(
                 UserNotFoundException.class,
@@ -320,8 +408,8 @@ class BookingServiceImplTest {
 
         assertThat("Пользователя с таким id не существует", equalTo(exception.getMessage()));
 
-        verify(userRepository, times(1))
-                .existsById(userId);
+        verify(userCache, times(1))
+                .findById(userId);
     }
 
     @DisplayName("approved BookingNotFoundException")
@@ -331,36 +419,9 @@ class BookingServiceImplTest {
         final Long bookingId = 1L;
         final Boolean approved = true;
 
-        when(userRepository.existsById(userId))
-                .thenReturn(true);
-        when(bookingRepository.existsById(bookingId))
-                .thenReturn(false);
-
-        final var exception = assertThrows(
-                BookingNotFoundException.class,
-                () -> bookingService.approve(userId, bookingId, approved)
-        );
-
-        assertThat("Брони с таким id не существует", equalTo(exception.getMessage()));
-
-        verify(userRepository, times(1))
-                .existsById(userId);
-        verify(bookingRepository, times(1))
-                .existsById(bookingId);
-    }
-
-    @DisplayName("approved BookingNotFoundException")
-    @Test
-    void approvedFindByIdBookingNotFoundExceptionTest() {
-        final Long userId = 2L;
-        final Long bookingId = 1L;
-        final Boolean approved = true;
-
-        when(userRepository.existsById(userId))
-                .thenReturn(true);
-        when(bookingRepository.existsById(bookingId))
-                .thenReturn(true);
-        when(bookingRepository.findById(bookingId))
+        when(userCache.findById(userId))
+                .thenReturn(Optional.of(UserDto.builder().id(userId).build()));
+        when(bookingRepository.findWithItemById(bookingId))
                 .thenReturn(Optional.empty());
 
         final var exception = assertThrows(
@@ -368,14 +429,12 @@ class BookingServiceImplTest {
                 () -> bookingService.approve(userId, bookingId, approved)
         );
 
-        assertThat("Booking с идентификатором " + bookingId + " не найден.", equalTo(exception.getMessage()));
+        assertThat("Брони с таким id не существует", equalTo(exception.getMessage()));
 
-        verify(userRepository, times(1))
-                .existsById(userId);
+        verify(userCache, times(1))
+                .findById(userId);
         verify(bookingRepository, times(1))
-                .existsById(bookingId);
-        verify(bookingRepository, times(1))
-                .findById(bookingId);
+                .findWithItemById(bookingId);
     }
 
     @Test
@@ -384,11 +443,9 @@ class BookingServiceImplTest {
         final Long bookingId = 1L;
         final Boolean approved = true;
 
-        when(userRepository.existsById(userId))
-                .thenReturn(true);
-        when(bookingRepository.existsById(bookingId))
-                .thenReturn(true);
-        when(bookingRepository.findById(bookingId))
+        when(userCache.findById(userId))
+                .thenReturn(Optional.of(UserDto.builder().id(userId).build()));
+        when(bookingRepository.findWithItemById(bookingId))
                 .thenReturn(Optional.of(booking));
 
         final var exception = assertThrows(
@@ -399,12 +456,10 @@ class BookingServiceImplTest {
         assertThat("Данный пользователь не может управлять запрашиваемой бронью.", equalTo(exception.getMessage()));
 
 
-        verify(userRepository, times(1))
-                .existsById(userId);
-        verify(bookingRepository, times(1))
-                .existsById(bookingId);
+        verify(userCache, times(1))
+                .findById(userId);
         verify(bookingRepository, times(1))
-                .findById(bookingId);
+                .findWithItemById(bookingId);
     }
 
     @Test
@@ -413,11 +468,9 @@ class BookingServiceImplTest {
         final Long bookingId = 1L;
         final Boolean approved = true;
 
-        when(userRepository.existsById(userId))
-                .thenReturn(true);
-        when(bookingRepository.existsById(bookingId))
-                .thenReturn(true);
-        when(bookingRepository.findById(bookingId))
+        when(userCache.findById(userId))
+                .thenReturn(Optional.of(UserDto.builder().id(userId).build()));
+        when(bookingRepository.findWithItemById(bookingId))
                 .thenReturn(Optional.of(booking));
 
         final var exception = assertThrows(
@@ -428,12 +481,10 @@ class BookingServiceImplTest {
         assertThat("Статус уже подтвержден", equalTo(exception.getMessage()));
 
 
-        verify(userRepository, times(1))
-                .existsById(userId);
-        verify(bookingRepository, times(1))
-                .existsById(bookingId);
+        verify(userCache, times(1))
+                .findById(userId);
         verify(bookingRepository, times(1))
-                .findById(bookingId);
+                .findWithItemById(bookingId);
     }
 
     @Test
@@ -0,0 +1,137 @@
+package ru.practicum.shareit.booking.service;
+
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.ItemBookingSummaryRepository;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.ItemBookingSummary;
+import ru.practicum.shareit.enums.Status;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.User;
+
+import javax.persistence.EntityManager;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@Transactional
+@SpringBootTest(
+        properties = "db.name=test",
+        webEnvironment = SpringBootTest.WebEnvironment.NONE)
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+class ItemBookingSummaryServiceIntegratedTest {
+
+    private final EntityManager em;
+
+    private final ItemBookingSummaryService summaryService;
+
+    private final ItemBookingSummaryRepository summaryRepository;
+
+    private final BookingService bookingService;
+
+    private User owner;
+
+    private User booker;
+
+    private Item item;
+
+    @BeforeEach
+    void beforeEach() {
+        owner = User.builder()
+                .name("owner")
+                .email("owner@email.com")
+                .build();
+        em.persist(owner);
+        booker = User.builder()
+                .name("booker")
+                .email("booker@email.com")
+                .build();
+        em.persist(booker);
+        item = new Item(null, "Дрель", "Аккумуляторная дрель", true, owner, null);
+        em.persist(item);
+    }
+
+    @Test
+    void approveRefreshesSummary() {
+        summaryService.create(item.getId());
+        final Booking next = persistBooking(3, 5, Status.WAITING);
+        em.flush();
+
+        bookingService.approve(owner.getId(), next.getId(), true);
+        em.flush();
+        em.clear();
+
+        final ItemBookingSummary summary = summaryRepository.findById(item.getId()).orElseThrow();
+        assertThat(summary.getLast(), nullValue());
+        assertThat(summary.getNext().getId(), equalTo(next.getId()));
+        assertThat(summary.getNext().getBookerId(), equalTo(booker.getId()));
+        assertThat(summary.getValidUntil(), equalTo(next.getStart()));
+    }
+
+    @Test
+    void findAllByItemIdsComputesMissingSummary() {
+        final Booking last = persistBooking(-5, -3, Status.APPROVED);
+        final Booking current = persistBooking(-1, 1, Status.APPROVED);
+        final Booking next = persistBooking(3, 5, Status.APPROVED);
+        em.flush();
+
+        final ItemBookingSummary summary = summaryService.findAllByItemIds(List.of(item.getId())).get(item.getId());
+
+        assertThat(summary.getLast().getId(), equalTo(last.getId()));
+        assertThat(summary.getNext().getId(), equalTo(next.getId()));
+        assertThat(summary.getValidUntil(), equalTo(current.getEnd()));
+        assertTrue(summaryRepository.findById(item.getId()).isEmpty());
+    }
+
+    @Test
+    void refreshStaleCreatesMissingSummary() {
+        final Booking last = persistBooking(-5, -3, Status.APPROVED);
+        em.flush();
+
+        summaryService.refreshStale(10);
+        em.flush();
+        em.clear();
+
+        final ItemBookingSummary summary = summaryRepository.findById(item.getId()).orElseThrow();
+        assertThat(summary.getLast().getId(), equalTo(last.getId()));
+        assertThat(summary.getNext(), nullValue());
+        assertThat(summary.getValidUntil(), nullValue());
+    }
+
+    @Test
+    void expireByBookerIdMarksSummaryStale() {
+        persistBooking(-5, -3, Status.APPROVED);
+        em.flush();
+        summaryService.refreshStale(10);
+        em.flush();
+
+        summaryService.expireByBookerId(booker.getId());
+        em.clear();
+
+        final ItemBookingSummary summary = summaryRepository.findById(item.getId()).orElseThrow();
+        assertFalse(summary.isValidAt(LocalDateTime.now()));
+    }
+
+    private Booking persistBooking(int startDays, int endDays, Status status) {
+        final LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+        final Booking booking = Booking.builder()
+                .start(now.plusDays(startDays))
+                .end(now.plusDays(endDays))
+                .item(item)
+                .booker(booker)
+                .status(status)
+                .build();
+        em.persist(booking);
+        return booking;
+    }
+}
@@ -0,0 +1,65 @@
+package ru.practicum.shareit.concurrency;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class BoundedDataSourceTest {
+
+    @Mock
+    private DataSource target;
+
+    @Mock
+    private Connection connection;
+
+    private BoundedDataSource dataSource;
+
+    @BeforeEach
+    void setUp() {
+        dataSource = new BoundedDataSource(target, 2, 10);
+    }
+
+    @Test
+    void getConnectionTakesPermitUntilClose() throws SQLException {
+        when(target.getConnection())
+                .thenReturn(connection);
+
+        final Connection first = dataSource.getConnection();
+        final Connection second = dataSource.getConnection();
+
+        assertThat(dataSource.availablePermits(), equalTo(0));
+        assertThrows(SQLTransientConnectionException.class, () -> dataSource.getConnection());
+        verify(target, times(2)).getConnection();
+
+        first.close();
+        first.close();
+        assertThat(dataSource.availablePermits(), equalTo(1));
+        verify(connection, times(2)).close();
+
+        second.close();
+        assertThat(dataSource.availablePermits(), equalTo(2));
+    }
+
+    @Test
+    void getConnectionReturnsPermitOnFailure() throws SQLException {
+        when(target.getConnection())
+                .thenThrow(new SQLException("refused"));
+
+        assertThrows(SQLException.class, () -> dataSource.getConnection());
+
+        assertThat(dataSource.availablePermits(), equalTo(2));
+    }
+}
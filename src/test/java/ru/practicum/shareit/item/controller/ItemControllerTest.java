@@ -5,29 +5,42 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import ru.practicum.shareit.NdjsonErrorConfig;
 import ru.practicum.shareit.exceptions.AccessBookingException;
 import ru.practicum.shareit.exceptions.OwnerAccessException;
+import ru.practicum.shareit.exceptions.UserNotFoundException;
 import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.ItemAvailabilityDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.ItemFullPrintDto;
+import ru.practicum.shareit.item.dto.ItemImportProgressDto;
+import ru.practicum.shareit.item.service.ItemImportService;
 import ru.practicum.shareit.item.service.ItemService;
 
 import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
+import java.util.function.Consumer;
 
 import static org.hamcrest.Matchers.hasSize;
 import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.doNothing;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
-import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
-import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 @WebMvcTest(controllers = ItemController.class)
+@Import(NdjsonErrorConfig.class)
 class ItemControllerTest {
 
     @Autowired
@@ -39,6 +52,9 @@ class ItemControllerTest {
     @MockBean
     private ItemService itemService;
 
+    @MockBean
+    private ItemImportService itemImportService;
+
     private final ItemDto itemDtoWithAnswer = new ItemDto(2L, "Щётка для обуви",
             "Стандартная щётка для обуви", true, 1L);
 
@@ -131,6 +147,22 @@ class ItemControllerTest {
                 .andExpect(jsonPath("$.authorName", is(commentdto.getAuthorName())));
     }
 
+    @Test
+    void createCommentAsync() throws Exception {
+        when(itemService.createCommentAsync(anyLong(), anyLong(), any()))
+                .thenReturn(commentdto);
+
+        mvc.perform(post("/items/{itemId}/comment/async", 1L)
+                        .header("X-Sharer-User-Id", 1L)
+                        .content(mapper.writeValueAsString(commentdto))
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isAccepted())
+                .andExpect(jsonPath("$.id", is(commentdto.getId()), Long.class))
+                .andExpect(jsonPath("$.text", is(commentdto.getText())));
+    }
+
     @Test
     void createCommentAccessBookingExceptionTest() throws Exception {
         when(itemService.createComment(anyLong(), anyLong(), any()))
@@ -288,6 +320,32 @@ class ItemControllerTest {
     }
 
 
+    @Test
+    void findAvailabilityTest() throws Exception {
+        final LocalDateTime start = LocalDateTime.of(2030, 1, 1, 10, 0);
+        final LocalDateTime end = LocalDateTime.of(2030, 1, 1, 12, 0);
+        final ItemAvailabilityDto availability = ItemAvailabilityDto.builder()
+                .itemId(1L)
+                .start(start)
+                .end(end)
+                .free(false)
+                .nextFreeStart(end.plusHours(1))
+                .build();
+
+        when(itemService.findAvailability(1L, 1L, start, end))
+                .thenReturn(availability);
+
+        mvc.perform(get("/items/1/availability")
+                        .param("start", "2030-01-01T10:00:00")
+                        .param("end", "2030-01-01T12:00:00")
+                        .header("X-Sharer-User-Id", 1L)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.itemId", is(1L), Long.class))
+                .andExpect(jsonPath("$.free", is(false)))
+                .andExpect(jsonPath("$.nextFreeStart", is("2030-01-01T13:00:00")));
+    }
+
     @Test
     void findAllTest() throws Exception {
         final Integer from = 0;
@@ -315,6 +373,102 @@ class ItemControllerTest {
                 .andExpect(jsonPath("$[0].comments", hasSize(0)));
     }
 
+    /**
+     * Тесты на проверку метода importAll
+     */
+
+    @Test
+    void importAllFromJson() throws Exception {
+        List<ItemDto> imported = new ArrayList<>();
+        mockImport(imported);
+
+        MvcResult result = mvc.perform(post("/items/import")
+                        .header("X-Sharer-User-Id", 1L)
+                        .content(mapper.writeValueAsString(List.of(itemDto, itemDtoWithAnswer)))
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(MediaType.APPLICATION_NDJSON))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON))
+                .andReturn();
+
+        assertEquals(2, imported.size());
+        assertEquals(itemDtoWithAnswer.getName(), imported.get(1).getName());
+        assertEquals(1L, imported.get(1).getRequestId());
+        assertEquals("{\"processed\":2,\"imported\":1,\"rejected\":[{\"index\":0,\"error\":\"Ошибка\"}]," +
+                        "\"finished\":false}\n" +
+                        "{\"processed\":2,\"imported\":1,\"rejected\":[],\"finished\":true}\n",
+                result.getResponse().getContentAsString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void importAllFromCsv() throws Exception {
+        List<ItemDto> imported = new ArrayList<>();
+        mockImport(imported);
+
+        mvc.perform(post("/items/import")
+                        .header("X-Sharer-User-Id", 1L)
+                        .content("name,description,available\nЩётка,\"Щётка, для обуви\",true\n"
+                                .getBytes(StandardCharsets.UTF_8))
+                        .contentType("text/csv;charset=UTF-8")
+                        .accept(MediaType.APPLICATION_NDJSON))
+                .andExpect(status().isOk());
+
+        assertEquals(1, imported.size());
+        assertEquals("Щётка", imported.get(0).getName());
+        assertEquals("Щётка, для обуви", imported.get(0).getDescription());
+        assertEquals(true, imported.get(0).getAvailable());
+    }
+
+    @Test
+    void importAllFromMalformedJson() throws Exception {
+        mockImport(new ArrayList<>());
+
+        mvc.perform(post("/items/import")
+                        .header("X-Sharer-User-Id", 1L)
+                        .content("[{\"name\": \"Щётка\", \"available\": \"да\"}]")
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(MediaType.APPLICATION_NDJSON))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void importAllForUnknownUser() throws Exception {
+        when(itemImportService.importAll(eq(99L), any(), any()))
+                .thenThrow(new UserNotFoundException("Пользователь не найден"));
+
+        mvc.perform(post("/items/import")
+                        .header("X-Sharer-User-Id", 99L)
+                        .content("[]")
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(MediaType.APPLICATION_NDJSON))
+                .andExpect(status().isNotFound())
+                .andExpect(jsonPath("$.Error", is("Пользователь не найден")));
+    }
+
+    private void mockImport(List<ItemDto> imported) {
+        when(itemImportService.importAll(eq(1L), any(), any())).thenAnswer(invocation -> {
+            Iterator<ItemDto> items = invocation.getArgument(1);
+            Consumer<ItemImportProgressDto> progress = invocation.getArgument(2);
+            items.forEachRemaining(imported::add);
+            progress.accept(ItemImportProgressDto.builder()
+                    .processed(imported.size())
+                    .imported(imported.size() - 1)
+                    .rejected(List.of(new ItemImportProgressDto.Rejected(0, "Ошибка")))
+                    .finished(false)
+                    .build());
+            ItemImportProgressDto result = ItemImportProgressDto.builder()
+                    .processed(imported.size())
+                    .imported(imported.size() - 1)
+                    .rejected(List.of())
+                    .finished(true)
+                    .build();
+            progress.accept(result);
+            return result;
+        });
+    }
 
     /**
      * Тесты на проверку метода deleteById
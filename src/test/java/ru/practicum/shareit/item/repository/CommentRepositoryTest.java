@@ -10,6 +10,7 @@ import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.user.User;
 
 import java.time.LocalDateTime;
+import java.util.List;
 
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.equalTo;
@@ -65,4 +66,55 @@ class CommentRepositoryTest {
         assertThat(result.size(), equalTo(1));
     }
 
-}
\ No newline at end of file
+    @Test
+    void findFirst10ForEachItemByItemIdsTest() {
+        final User owner = User.builder()
+                .name("John")
+                .email("some@email.com")
+                .build();
+        em.persist(owner);
+        final Item item = Item.builder()
+                .name("Аккумуляторная дрель")
+                .description("Аккумуляторная дрель")
+                .available(true)
+                .owner(owner)
+                .build();
+        em.persist(item);
+        final Item otherItem = Item.builder()
+                .name("Отвёртка")
+                .description("Крестовая отвёртка")
+                .available(true)
+                .owner(owner)
+                .build();
+        em.persist(otherItem);
+        final User author = User.builder()
+                .name("Terry")
+                .email("hfkg@email.com")
+                .build();
+        em.persist(author);
+        for (int i = 0; i < 12; i++) {
+            em.persist(Comment.builder()
+                    .text("comment " + i)
+                    .author(author)
+                    .itemId(item.getId())
+                    .created(LocalDateTime.now().minusHours(i))
+                    .build());
+        }
+        final Comment otherComment = Comment.builder()
+                .text("other comment")
+                .author(author)
+                .itemId(otherItem.getId())
+                .created(LocalDateTime.now())
+                .build();
+        em.persist(otherComment);
+
+        final var result = commentRepository.findFirst10ForEachItemByItemIds(List.of(item.getId(), otherItem.getId()));
+
+        assertThat(result.size(), equalTo(11));
+        assertThat(result.get(0).getText(), equalTo("comment 0"));
+        assertThat(result.get(0).getAuthorName(), equalTo(author.getName()));
+        assertThat(result.get(9).getText(), equalTo("comment 9"));
+        assertThat(result.get(10).getId(), equalTo(otherComment.getId()));
+        assertThat(result.get(10).getItemId(), equalTo(otherItem.getId()));
+    }
+}
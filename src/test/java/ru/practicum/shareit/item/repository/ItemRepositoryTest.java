@@ -13,6 +13,7 @@ import ru.practicum.shareit.user.User;
 import ru.practicum.shareit.utility.FromSizeRequest;
 
 import java.time.LocalDateTime;
+import java.util.List;
 
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.equalTo;
@@ -69,6 +70,39 @@ public class ItemRepositoryTest {
         assertThat(result.get(0).getId(), equalTo(item.getId()));
     }
 
+    @Test
+    public void itemSearchNameMatchesFirstTest() {
+        final Pageable pageable = FromSizeRequest.of(0, 10);
+        final Item byDescription = Item.builder()
+                .name("Набор бит")
+                .description("Биты для дрели")
+                .available(true)
+                .owner(owner)
+                .build();
+        em.persist(byDescription);
+        final Item byName = Item.builder()
+                .name("Дрель ударная")
+                .description("Сетевая")
+                .available(true)
+                .owner(owner)
+                .build();
+        em.persist(byName);
+        final Item unavailable = Item.builder()
+                .name("Дрель старая")
+                .description("Сетевая")
+                .available(false)
+                .owner(owner)
+                .build();
+        em.persist(unavailable);
+
+        final var result = itemRepository.itemSearch("ДРЕЛ", pageable);
+
+        assertThat(result.size(), equalTo(3));
+        assertThat(result.get(0).getId(), equalTo(item.getId()));
+        assertThat(result.get(1).getId(), equalTo(byName.getId()));
+        assertThat(result.get(2).getId(), equalTo(byDescription.getId()));
+    }
+
     @Test
     public void itemSearchEmptyTest() {
         final Pageable pageable = FromSizeRequest.of(0, 10);
@@ -106,6 +140,62 @@ public class ItemRepositoryTest {
         assertThat(result.get(0).getId(), equalTo(answer.getId()));
     }
 
+    @Test
+    public void findAllByRequestIdInOrderByIdAsc() {
+        final User user = User.builder()
+                .name("John")
+                .email("any@email.com")
+                .build();
+        em.persist(user);
+        final ItemRequest firstRequest = ItemRequest.builder()
+                .description("some text")
+                .requesterId(user.getId())
+                .created(LocalDateTime.now())
+                .build();
+        em.persist(firstRequest);
+        final ItemRequest secondRequest = ItemRequest.builder()
+                .description("other text")
+                .requesterId(user.getId())
+                .created(LocalDateTime.now())
+                .build();
+        em.persist(secondRequest);
+        final Item firstAnswer = Item.builder()
+                .name("Аккумуляторная дрель")
+                .description("Аккумуляторная дрель")
+                .available(true)
+                .owner(owner)
+                .requestId(firstRequest.getId())
+                .build();
+        em.persist(firstAnswer);
+        final Item secondAnswer = Item.builder()
+                .name("Отвёртка")
+                .description("Крестовая отвёртка")
+                .available(true)
+                .owner(owner)
+                .requestId(secondRequest.getId())
+                .build();
+        em.persist(secondAnswer);
+
+        final var result = itemRepository.findAllByRequestIdInOrderByIdAsc(
+                List.of(firstRequest.getId(), secondRequest.getId()));
+
+        assertThat(result.size(), equalTo(2));
+        assertThat(result.get(0).getId(), equalTo(firstAnswer.getId()));
+        assertThat(result.get(1).getId(), equalTo(secondAnswer.getId()));
+    }
+
+    @Test
+    public void findAllForSearchIndex() {
+        final var result = itemRepository.findAllForSearchIndex();
+
+        assertThat(result.size(), equalTo(1));
+        assertThat(result.get(0).getId(), equalTo(item.getId()));
+        assertThat(result.get(0).getName(), equalTo(item.getName()));
+        assertThat(result.get(0).getAvailable(), equalTo(true));
+        assertThat(result.get(0).getOwnerId(), equalTo(owner.getId()));
+        assertThat(result.get(0).getRequestId(), equalTo(null));
+    }
+
     @Test
     public void findAllByOwnerIdOrderByIdAsc() {
         final Pageable pageable = FromSizeRequest.of(0, 10);
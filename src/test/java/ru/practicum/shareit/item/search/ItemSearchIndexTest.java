@@ -0,0 +1,112 @@
+package ru.practicum.shareit.item.search;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.user.User;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ItemSearchIndexTest {
+
+    @Mock
+    private ItemRepository itemRepository;
+
+    private ItemSearchIndex itemSearchIndex;
+
+    private final User owner = new User(1L, "name", "name@user.com");
+
+    private final User otherOwner = new User(2L, "other", "other@user.com");
+
+    @BeforeEach
+    void setUp() {
+        itemSearchIndex = new ItemSearchIndex(itemRepository, true);
+        itemSearchIndex.index(new Item(1L, "Аккумуляторная дрель", "Дрель с аккумулятором", true, owner, null));
+        itemSearchIndex.index(new Item(2L, "Набор бит", "Биты для дрели", true, owner, null));
+        itemSearchIndex.index(new Item(3L, "Дрель ударная", "Сетевая", true, otherOwner, 5L));
+        itemSearchIndex.index(new Item(4L, "Дрель старая", "Сетевая", false, owner, null));
+    }
+
+    @Test
+    void searchSubstringIgnoringCase() {
+        final var result = itemSearchIndex.search("АККУМ", 0, 10);
+
+        assertThat(ids(result), equalTo(List.of(1L)));
+        assertThat(result.get(0).getName(), equalTo("Аккумуляторная дрель"));
+    }
+
+    @Test
+    void searchRanksNameMatchesFirstAndSkipsUnavailable() {
+        final var result = itemSearchIndex.search("дрел", 0, 10);
+
+        assertThat(ids(result), equalTo(List.of(1L, 3L, 2L)));
+        assertThat(result.get(1).getRequestId(), equalTo(5L));
+    }
+
+    @Test
+    void searchPages() {
+        assertThat(ids(itemSearchIndex.search("дрел", 1, 1)), equalTo(List.of(3L)));
+        assertThat(ids(itemSearchIndex.search("дрел", 2, 10)), equalTo(List.of(2L)));
+        assertThat(ids(itemSearchIndex.search("дрел", 3, 10)), equalTo(List.of()));
+    }
+
+    @Test
+    void searchShortText() {
+        assertThat(ids(itemSearchIndex.search("ДР", 0, 10)), equalTo(List.of(1L, 3L, 2L)));
+    }
+
+    @Test
+    void searchUnknownText() {
+        assertThat(ids(itemSearchIndex.search("пылесос", 0, 10)), equalTo(List.of()));
+    }
+
+    @Test
+    void indexUpdatesExistingItem() {
+        itemSearchIndex.index(new Item(1L, "Пылесос", "Моющий", true, owner, null));
+
+        assertThat(ids(itemSearchIndex.search("аккум", 0, 10)), equalTo(List.of()));
+        assertThat(ids(itemSearchIndex.search("пылесос", 0, 10)), equalTo(List.of(1L)));
+    }
+
+    @Test
+    void remove() {
+        itemSearchIndex.remove(3L);
+
+        assertThat(ids(itemSearchIndex.search("дрел", 0, 10)), equalTo(List.of(1L, 2L)));
+    }
+
+    @Test
+    void removeAllByOwnerId() {
+        itemSearchIndex.removeAllByOwnerId(owner.getId());
+
+        assertThat(ids(itemSearchIndex.search("дрел", 0, 10)), equalTo(List.of(3L)));
+    }
+
+    @Test
+    void disabledIndexIgnoresUpdates() {
+        final ItemSearchIndex disabled = new ItemSearchIndex(itemRepository, false);
+        disabled.rebuild();
+        disabled.index(new Item(1L, "Аккумуляторная дрель", "Дрель", true, owner, null));
+
+        assertThat(disabled.isEnabled(), equalTo(false));
+        assertThat(disabled.search("дрел", 0, 10).size(), equalTo(0));
+        verifyNoInteractions(itemRepository);
+    }
+
+    private static List<Long> ids(List<ItemDto> items) {
+        return items.stream()
+                .map(ItemDto::getId)
+                .collect(Collectors.toList());
+    }
+}
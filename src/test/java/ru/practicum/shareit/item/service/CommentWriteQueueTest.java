@@ -0,0 +1,71 @@
+package ru.practicum.shareit.item.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.item.model.Comment;
+import ru.practicum.shareit.user.User;
+
+import javax.persistence.EntityManager;
+import java.time.LocalDateTime;
+import java.util.Collection;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+class CommentWriteQueueTest {
+
+    private final EntityManager em = mock(EntityManager.class);
+
+    private final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private CommentWriteQueue commentWriteQueue;
+
+    @BeforeEach
+    void setUp() {
+        final SharedSessionContractImplementor session = mock(SharedSessionContractImplementor.class,
+                RETURNS_DEEP_STUBS);
+        when(em.unwrap(SharedSessionContractImplementor.class))
+                .thenReturn(session);
+        when(session.getFactory().getIdentifierGenerator(anyString()).generate(any(), any()))
+                .thenReturn(1L, 2L);
+        commentWriteQueue = new CommentWriteQueue(em, jdbcTemplate,
+                new TransactionTemplate(mock(PlatformTransactionManager.class)), meterRegistry, 10, 10);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void flushCountsDroppedComments() {
+        commentWriteQueue.submit(comment());
+        commentWriteQueue.submit(comment());
+        assertThat(meterRegistry.get("shareit.comments.async.pending").gauge().value(), equalTo(2.0));
+        when(jdbcTemplate.batchUpdate(anyString(), any(Collection.class), anyInt(),
+                any(ParameterizedPreparedStatementSetter.class)))
+                .thenThrow(new DataIntegrityViolationException("fk_comments_item_id"));
+
+        assertThat(commentWriteQueue.flush(), equalTo(0));
+        assertThat(meterRegistry.get("shareit.comments.async.dropped").counter().count(), equalTo(2.0));
+        assertThat(meterRegistry.get("shareit.comments.async.pending").gauge().value(), equalTo(0.0));
+    }
+
+    private static Comment comment() {
+        return Comment.builder()
+                .text("Отличная дрель")
+                .itemId(1L)
+                .author(new User(1L, "John", "john@email.com"))
+                .created(LocalDateTime.now())
+                .build();
+    }
+}
@@ -0,0 +1,114 @@
+package ru.practicum.shareit.item.service;
+
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.ItemBookingSummaryRepository;
+import ru.practicum.shareit.exceptions.UserNotFoundException;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemImportProgressDto;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.request.ItemRequest;
+import ru.practicum.shareit.request.ItemRequestRepository;
+import ru.practicum.shareit.user.User;
+import ru.practicum.shareit.user.UserRepository;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@Transactional
+@SpringBootTest(
+        properties = {"db.name=test", "shareit.items.import.chunk-size=2"},
+        webEnvironment = SpringBootTest.WebEnvironment.NONE)
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+class ItemImportServiceIntegratedTest {
+
+    private final ItemImportService itemImportService;
+
+    private final ItemRepository itemRepository;
+
+    private final ItemBookingSummaryRepository summaryRepository;
+
+    private final ItemRequestRepository itemRequestRepository;
+
+    private final UserRepository userRepository;
+
+    private User owner;
+
+    private ItemRequest itemRequest;
+
+    @BeforeEach
+    void beforeEach() {
+        owner = userRepository.save(User.builder()
+                .name("John")
+                .email("some@email.com")
+                .build());
+        User requester = userRepository.save(User.builder()
+                .name("Jane")
+                .email("jane@email.com")
+                .build());
+        itemRequest = itemRequestRepository.save(ItemRequest.builder()
+                .description("Нужна дрель")
+                .requesterId(requester.getId())
+                .created(LocalDateTime.now())
+                .build());
+    }
+
+    @Test
+    void importAllByChunks() {
+        List<ItemImportProgressDto> progress = new ArrayList<>();
+        final ItemImportProgressDto result = itemImportService.importAll(owner.getId(), Arrays.asList(
+                new ItemDto(null, "Дрель", "Аккумуляторная дрель", true, itemRequest.getId()),
+                new ItemDto(null, " ", "Без имени", true, null),
+                new ItemDto(null, "Пила", "Ручная пила", false, null),
+                new ItemDto(null, "Отвертка", "Крестовая отвертка", true, 999L),
+                new ItemDto(null, "Молоток", "Столярный молоток", null, null)
+        ).iterator(), progress::add);
+
+        assertThat(result.getProcessed(), equalTo(5));
+        assertThat(result.getImported(), equalTo(2));
+        assertTrue(result.getFinished());
+        assertThat(progress.size(), equalTo(4));
+        assertThat(progress.get(0).getRejected().get(0).getIndex(), equalTo(1));
+        assertThat(progress.get(0).getRejected().get(0).getError(), equalTo("Имя не должно быть пустым"));
+        assertThat(progress.get(1).getProcessed(), equalTo(4));
+        assertThat(progress.get(1).getRejected().get(0).getIndex(), equalTo(3));
+        assertThat(progress.get(1).getRejected().get(0).getError(), equalTo("Запроса с id 999 не существует"));
+        assertThat(progress.get(2).getRejected().get(0).getIndex(), equalTo(4));
+        List<Item> items = itemRepository.findAll();
+        assertThat(items.size(), equalTo(2));
+        assertThat(items.get(0).getRequestId(), equalTo(itemRequest.getId()));
+        assertThat(items.get(1).getOwner().getId(), equalTo(owner.getId()));
+        assertTrue(summaryRepository.findById(items.get(0).getId()).isPresent());
+        assertTrue(summaryRepository.findById(items.get(1).getId()).isPresent());
+    }
+
+    @Test
+    void importAllEmpty() {
+        List<ItemImportProgressDto> progress = new ArrayList<>();
+        final ItemImportProgressDto result = itemImportService.importAll(owner.getId(),
+                List.<ItemDto>of().iterator(), progress::add);
+
+        assertThat(result.getProcessed(), equalTo(0));
+        assertThat(progress.size(), equalTo(1));
+    }
+
+    @Test
+    void importAllForUnknownUser() {
+        assertThrows(UserNotFoundException.class, () -> itemImportService.importAll(999L,
+                List.of(new ItemDto(null, "Дрель", "Дрель", true, null)).iterator(), progress -> {
+                }));
+        assertTrue(itemRepository.findAll().isEmpty());
+    }
+}
@@ -28,7 +28,9 @@ import java.util.List;
 
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.equalTo;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 @Transactional
 @SpringBootTest(
@@ -49,6 +51,8 @@ public class ItemServiceImplIntegratedTest {
 
     private final CommentRepository commentRepository;
 
+    private final CommentWriteQueue commentWriteQueue;
+
     private User createOwner;
 
     private Item createItem;
@@ -133,11 +137,42 @@ public class ItemServiceImplIntegratedTest {
         assertThat(resCommentDto.getAuthorName(), equalTo(resComment.getAuthor().getName()));
     }
 
+    @Test
+    void createCommentAsync() {
+        final User author = User.builder()
+                .name("John")
+                .email("hfkg@email.com")
+                .build();
+        userRepository.save(author);
+        final Booking booking = Booking.builder()
+                .start(LocalDateTime.now().minusDays(3))
+                .end(LocalDateTime.now().minusDays(1))
+                .item(createItem)
+                .booker(author)
+                .status(Status.APPROVED)
+                .build();
+        bookingRepository.save(booking);
+        final CommentDto commentdto = CommentDto.builder()
+                .text("some comment")
+                .build();
+
+        final var resCommentDto = itemService.createCommentAsync(author.getId(), createItem.getId(), commentdto);
+
+        assertNotNull(resCommentDto.getId());
+        assertTrue(commentRepository.findById(resCommentDto.getId()).isEmpty());
+
+        assertThat(commentWriteQueue.flush(), equalTo(1));
+        final var resComment = commentRepository.findById(resCommentDto.getId()).get();
+
+        assertThat(resComment.getText(), equalTo(commentdto.getText()));
+        assertThat(resComment.getItemId(), equalTo(createItem.getId()));
+        assertThat(resComment.getAuthor().getId(), equalTo(author.getId()));
+    }
+
     @Test
     void createCommentItemNotFoundExceptionTest() {
         final Long userId = createOwner.getId();
         final Long itemId = createItem.getId();
-        itemRepository.deleteById(itemId);
         final User author = User.builder()
                 .name("John")
                 .email("hfkg@email.com")
@@ -151,6 +186,7 @@ public class ItemServiceImplIntegratedTest {
                 .status(Status.APPROVED)
                 .build();
         bookingRepository.save(booking);
+        itemRepository.deleteById(itemId);
         final CommentDto commentdto = CommentDto.builder()
                 .text("some comment")
                 .build();
@@ -6,7 +6,12 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.data.domain.Pageable;
+import ru.practicum.shareit.booking.BookingCalendar;
 import ru.practicum.shareit.booking.BookingRepository;
+import ru.practicum.shareit.booking.dto.BookingPeriodView;
+import ru.practicum.shareit.booking.model.ItemBookingSummary;
+import ru.practicum.shareit.booking.service.ItemBookingSummaryService;
+import ru.practicum.shareit.exceptions.DateTimeException;
 import ru.practicum.shareit.exceptions.ItemNotFoundException;
 import ru.practicum.shareit.exceptions.UserNotFoundException;
 import ru.practicum.shareit.item.dto.CommentPrintView;
@@ -15,11 +20,15 @@ import ru.practicum.shareit.item.dto.ItemFullPrintDto;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.CommentRepository;
 import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.search.ItemSearchIndex;
 import ru.practicum.shareit.user.User;
-import ru.practicum.shareit.user.UserRepository;
+import ru.practicum.shareit.user.UserCache;
+import ru.practicum.shareit.user.UserDto;
 import ru.practicum.shareit.utility.FromSizeRequest;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import static org.hamcrest.MatcherAssert.assertThat;
@@ -36,7 +45,7 @@ class ItemServiceImplTest {
     private ItemRepository itemRepository;
 
     @Mock
-    private UserRepository userRepository;
+    private UserCache userCache;
 
     @Mock
     private BookingRepository bookingRepository;
@@ -44,6 +53,15 @@ class ItemServiceImplTest {
     @Mock
     private CommentRepository commentRepository;
 
+    @Mock
+    private ItemSearchIndex itemSearchIndex;
+
+    @Mock
+    private ItemBookingSummaryService itemBookingSummaryService;
+
+    @Mock
+    private CommentWriteQueue commentWriteQueue;
+
     private final ItemDto itemDtoWithAnswer = new ItemDto(2L, "Щётка для обуви",
             "Стандартная щётка для обуви", true, 1L);
 
@@ -74,7 +92,8 @@ class ItemServiceImplTest {
 
     @BeforeEach
     void setUp() {
-        itemService = new ItemServiceImpl(itemRepository, userRepository, bookingRepository, commentRepository);
+        itemService = new ItemServiceImpl(itemRepository, userCache, bookingRepository, commentRepository,
+                itemSearchIndex, itemBookingSummaryService, commentWriteQueue);
     }
 
     //    @AfterEach
@@ -92,16 +111,14 @@ class ItemServiceImplTest {
         final Long itemId = 1L;
         final List<CommentPrintView> comments = List.of();
 
-        when(userRepository.existsById(userId))
-                .thenReturn(true);
+        when(userCache.findById(userId))
+                .thenReturn(Optional.of(UserDto.builder().id(userId).build()));
         when(itemRepository.findById(itemId))
                 .thenReturn(Optional.of(item));
         when(commentRepository.findFirst10ByItemIdOrderByCreatedDesc(itemId))
                 .thenReturn(comments);
-        when(bookingRepository.findFirstLastBooking(itemId))
-                .thenReturn(Optional.empty());
-        when(bookingRepository.findFirstNextBooking(itemId))
-                .thenReturn(Optional.empty());
+        when(itemBookingSummaryService.findAllByItemIds(List.of(itemId)))
+                .thenReturn(Map.of(itemId, new ItemBookingSummary(itemId)));
 
         final var result = itemService.findById(userId, itemId);
 
@@ -113,16 +130,14 @@ class ItemServiceImplTest {
         assertThat(result.getNextBooking(), equalTo(null));
         assertThat(result.getComments().size(), equalTo(0));
 
-        verify(userRepository, times(1))
-                .existsById(userId);
+        verify(userCache, times(1))
+                .findById(userId);
         verify(itemRepository, times(1))
                 .findById(itemId);
         verify(commentRepository, times(1))
                 .findFirst10ByItemIdOrderByCreatedDesc(itemId);
-        verify(bookingRepository, times(1))
-                .findFirstLastBooking(itemId);
-        verify(bookingRepository, times(1))
-                .findFirstNextBooking(itemId);
+        verify(itemBookingSummaryService, times(1))
+                .findAllByItemIds(List.of(itemId));
     }
 
     @Test
@@ -130,8 +145,8 @@ class ItemServiceImplTest {
         final Long userId = 2L;
         final Long itemId = 1L;
 
-        when(userRepository.existsById(userId))
-                .thenReturn(true);
+        when(userCache.findById(userId))
+                .thenReturn(Optional.of(UserDto.builder().id(userId).build()));
         when(itemRepository.findById(itemId))
                 .thenReturn(Optional.empty());
 
@@ -142,10 +157,10 @@ class ItemServiceImplTest {
 
         assertThat("Item с идентификатором " + itemId + " не найден.", equalTo(exception.getMessage()));
 
-        verify(userRepository, times(1))
-                .existsById(userId);
-        verify(userRepository, times(1))
-                .existsById(userId);
+        verify(userCache, times(1))
+                .findById(userId);
+        verify(userCache, times(1))
+                .findById(userId);
     }
 
     @Test
@@ -153,8 +168,8 @@ class ItemServiceImplTest {
         final Long userId = 2L;
         final Long itemId = 1L;
 
-        when(userRepository.existsById(userId))
-                .thenReturn(false);
+        when(userCache.findById(userId))
+                .thenReturn(Optional.empty());
 
         final var exception = assertThrows(
                 UserNotFoundException.class,
@@ -163,12 +178,95 @@ class ItemServiceImplTest {
 
         assertThat("Пользователя с таким id не существует", equalTo(exception.getMessage()));
 
-        verify(userRepository, times(1))
-                .existsById(userId);
+        verify(userCache, times(1))
+                .findById(userId);
     }
 
     @Test
     void findAll() {
+        final Long ownerId = 2L;
+        final int from = 0;
+        final int size = 10;
+        final List<Long> itemIds = List.of(item.getId());
+
+        when(itemRepository.findAllByOwnerIdOrderByIdAsc(ownerId, FromSizeRequest.of(from, size)))
+                .thenReturn(List.of(item));
+        when(commentRepository.findFirst10ForEachItemByItemIds(itemIds))
+                .thenReturn(List.of());
+        when(itemBookingSummaryService.findAllByItemIds(itemIds))
+                .thenReturn(Map.of(item.getId(), new ItemBookingSummary(item.getId())));
+
+        final var result = itemService.findAll(ownerId, from, size);
+
+        assertThat(result.size(), equalTo(1));
+        assertThat(result.get(0).getId(), equalTo(item.getId()));
+        assertThat(result.get(0).getLastBooking(), equalTo(null));
+        assertThat(result.get(0).getNextBooking(), equalTo(null));
+        assertThat(result.get(0).getComments().size(), equalTo(0));
+
+        verify(commentRepository, never())
+                .findFirst10ByItemIdOrderByCreatedDesc(anyLong());
+        verify(itemBookingSummaryService, times(1))
+                .findAllByItemIds(itemIds);
+    }
+
+    @Test
+    void findAllWithoutItems() {
+        final Long ownerId = 2L;
+
+        when(itemRepository.findAllByOwnerIdOrderByIdAsc(ownerId, FromSizeRequest.of(0, 10)))
+                .thenReturn(List.of());
+
+        final var result = itemService.findAll(ownerId, 0, 10);
+
+        assertThat(result.size(), equalTo(0));
+        verifyNoInteractions(commentRepository, bookingRepository, itemBookingSummaryService);
+    }
+
+    @Test
+    void findAvailability() {
+        final Long userId = 1L;
+        final Long itemId = 1L;
+        final LocalDateTime start = LocalDateTime.of(2030, 1, 1, 10, 0);
+        final LocalDateTime end = LocalDateTime.of(2030, 1, 1, 12, 0);
+        final BookingPeriodView busy = new BookingPeriodView() {
+            @Override
+            public LocalDateTime getStart() {
+                return start.plusHours(1);
+            }
+
+            @Override
+            public LocalDateTime getEnd() {
+                return end.plusHours(1);
+            }
+        };
+
+        when(userCache.findById(userId))
+                .thenReturn(Optional.of(UserDto.builder().id(userId).build()));
+        when(itemRepository.findById(itemId))
+                .thenReturn(Optional.of(item));
+        when(bookingRepository.findAllByItemIdAndStatusInAndEndAfterOrderByStartAsc(
+                itemId, BookingCalendar.BLOCKING_STATUSES, start))
+                .thenReturn(List.of(busy));
+
+        final var result = itemService.findAvailability(userId, itemId, start, end);
+
+        assertThat(result.getItemId(), equalTo(itemId));
+        assertThat(result.getFree(), equalTo(false));
+        assertThat(result.getNextFreeStart(), equalTo(end.plusHours(1)));
+    }
+
+    @Test
+    void findAvailabilityDateTimeException() {
+        final LocalDateTime start = LocalDateTime.of(2030, 1, 1, 10, 0);
+
+        when(userCache.findById(1L))
+                .thenReturn(Optional.of(UserDto.builder().id(1L).build()));
+
+        assertThrows(
+                DateTimeException.class,
+                () -> itemService.findAvailability(1L, 1L, start, start)
+        );
     }
 
     @Test
@@ -182,6 +280,8 @@ class ItemServiceImplTest {
 
         verify(itemRepository, times(1))
                 .deleteById(id);
+        verify(itemSearchIndex, times(1))
+                .remove(id);
     }
 
     @Test
@@ -207,4 +307,21 @@ class ItemServiceImplTest {
         verify(itemRepository, times(1))
                 .itemSearch(text, pageable);
     }
+
+    @Test
+    void searchWithInMemoryIndex() {
+        final String text = "text";
+        final List<ItemDto> items = List.of(itemDto);
+
+        when(itemSearchIndex.isEnabled())
+                .thenReturn(true);
+        when(itemSearchIndex.search(text, 0, 10))
+                .thenReturn(items);
+
+        final var result = itemService.search(text, 0, 10);
+
+        assertThat(result, equalTo(items));
+        verify(itemRepository, never())
+                .itemSearch(anyString(), any(Pageable.class));
+    }
 }
\ No newline at end of file
@@ -0,0 +1,55 @@
+package ru.practicum.shareit.item.utility;
+
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.exceptions.ImportFormatException;
+import ru.practicum.shareit.item.dto.ItemDto;
+
+import java.io.StringReader;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class ItemCsvReaderTest {
+
+    @Test
+    void readItems() {
+        ItemCsvReader reader = new ItemCsvReader(new StringReader("available,name,description,requestId\r\n" +
+                "true,Дрель,\"Дрель, аккумуляторная\",3\r\n" +
+                "\r\n" +
+                "FALSE,\"Пила \"\"Ножовка\"\"\",\"Ручная\nпила\",\n"));
+
+        ItemDto first = reader.next();
+        assertThat(first.getName(), equalTo("Дрель"));
+        assertThat(first.getDescription(), equalTo("Дрель, аккумуляторная"));
+        assertThat(first.getAvailable(), equalTo(true));
+        assertThat(first.getRequestId(), equalTo(3L));
+        ItemDto second = reader.next();
+        assertThat(second.getName(), equalTo("Пила \"Ножовка\""));
+        assertThat(second.getDescription(), equalTo("Ручная\nпила"));
+        assertThat(second.getAvailable(), equalTo(false));
+        assertNull(second.getRequestId());
+        assertFalse(reader.hasNext());
+    }
+
+    @Test
+    void readWithoutRequiredColumn() {
+        assertThrows(ImportFormatException.class, () -> new ItemCsvReader(new StringReader("name,description\n")));
+    }
+
+    @Test
+    void readWrongAvailable() {
+        ItemCsvReader reader = new ItemCsvReader(new StringReader("name,description,available\nДрель,Дрель,да\n"));
+
+        assertThrows(ImportFormatException.class, reader::next);
+    }
+
+    @Test
+    void readUnclosedQuote() {
+        ItemCsvReader reader = new ItemCsvReader(new StringReader("name,description,available\n\"Дрель,Дрель,true\n"));
+
+        assertThrows(ImportFormatException.class, reader::hasNext);
+    }
+}
@@ -0,0 +1,62 @@
+package ru.practicum.shareit.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.metrics.AutoConfigureMetrics;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.user.User;
+
+import javax.persistence.EntityManager;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.notNullValue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@Transactional
+@SpringBootTest(properties = "db.name=test")
+@AutoConfigureMockMvc
+@AutoConfigureMetrics
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+class SqlStatementMetricsTest {
+
+    private final EntityManager em;
+
+    private final MeterRegistry meterRegistry;
+
+    private final MockMvc mvc;
+
+    @Test
+    void recordStatementsPerEndpoint() throws Exception {
+        final User user = User.builder()
+                .name("John")
+                .email("metrics@email.com")
+                .build();
+        em.persist(user);
+        em.flush();
+        em.clear();
+
+        mvc.perform(get("/items")
+                        .header("X-Sharer-User-Id", user.getId()))
+                .andExpect(status().isOk());
+
+        final DistributionSummary summary = meterRegistry.find(SqlStatementMetricsInterceptor.METRIC_NAME)
+                .tag("method", "GET")
+                .tag("uri", "/items")
+                .summary();
+        assertThat(summary, notNullValue());
+        assertThat(summary.count(), equalTo(1L));
+        assertThat(summary.totalAmount(), greaterThan(0.0));
+        assertThat(meterRegistry.find("spring.data.repository.invocations")
+                .tag("repository", "ItemRepository")
+                .timer(), notNullValue());
+    }
+}
@@ -13,7 +13,8 @@ import ru.practicum.shareit.item.repository.ItemRepository;
 import ru.practicum.shareit.item.utility.ItemMapper;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 import ru.practicum.shareit.user.User;
-import ru.practicum.shareit.user.UserRepository;
+import ru.practicum.shareit.user.UserCache;
+import ru.practicum.shareit.user.UserDto;
 import ru.practicum.shareit.utility.FromSizeRequest;
 
 import java.time.LocalDateTime;
@@ -31,7 +32,7 @@ class ItemRequestServiceImplTest {
     private ItemRequestService itemRequestService;
 
     @Mock
-    private UserRepository userRepository;
+    private UserCache userCache;
 
     @Mock
     private ItemRepository itemRepository;
@@ -51,7 +52,7 @@ class ItemRequestServiceImplTest {
 
     @BeforeEach
     void setUp() {
-        itemRequestService = new ItemRequestServiceImpl(userRepository, itemRepository, itemRequestRepository);
+        itemRequestService = new ItemRequestServiceImpl(userCache, itemRepository, itemRequestRepository);
     }
 
     //    @AfterEach
@@ -71,7 +72,7 @@ class ItemRequestServiceImplTest {
                 .created(time)
                 .build();
 
-        when(userRepository.existsById(userId))
+        when(userCache.findById(userId))
                 .thenThrow(new UserNotFoundException("Пользователя с таким id не существует"));
 
         final var exception = assertThrows(
@@ -81,12 +82,46 @@ class ItemRequestServiceImplTest {
 
         assertThat("Пользователя с таким id не существует", equalTo(exception.getMessage()));
 
-        verify(userRepository, times(1))
-                .existsById(userId);
+        verify(userCache, times(1))
+                .findById(userId);
     }
 
     @Test
     void findAllByRequester() {
+        final Long requesterId = 1L;
+        final User owner = new User(2L, "name", "name@user.com");
+        final ItemRequest first = ItemRequest.builder()
+                .id(1L)
+                .description("description")
+                .requesterId(requesterId)
+                .created(time)
+                .build();
+        final ItemRequest second = ItemRequest.builder()
+                .id(2L)
+                .description("other description")
+                .requesterId(requesterId)
+                .created(time.minusDays(1))
+                .build();
+        final Item answer = new Item(1L, "Дрель", "Аккумуляторная дрель", true, owner, 2L);
+
+        when(userCache.findById(requesterId))
+                .thenReturn(Optional.of(UserDto.builder().id(requesterId).build()));
+        when(itemRequestRepository.findAllByRequesterIdIsOrderByCreatedDesc(requesterId))
+                .thenReturn(List.of(first, second));
+        when(itemRepository.findAllByRequestIdInOrderByIdAsc(List.of(1L, 2L)))
+                .thenReturn(List.of(answer));
+
+        final var result = itemRequestService.findAllByRequester(requesterId);
+
+        assertThat(result.size(), equalTo(2));
+        assertThat(result.get(0).getItems().size(), equalTo(0));
+        assertThat(result.get(1).getItems().size(), equalTo(1));
+        assertThat(result.get(1).getItems().get(0).getId(), equalTo(answer.getId()));
+
+        verify(itemRepository, times(1))
+                .findAllByRequestIdInOrderByIdAsc(List.of(1L, 2L));
+        verify(itemRepository, never())
+                .findAllByRequestId(anyLong());
     }
 
     @Test
@@ -104,11 +139,11 @@ class ItemRequestServiceImplTest {
         List<ItemRequest> itemRequestList = List.of(itemRequest);
 
 
-        when(userRepository.existsById(userId))
-                .thenReturn(true);
+        when(userCache.findById(userId))
+                .thenReturn(Optional.of(UserDto.builder().id(userId).build()));
         when(itemRequestRepository.findAllByRequesterIdNotOrderByCreatedDesc(userId, pageable))
                 .thenReturn(itemRequestList);
-        when(itemRepository.findAllByRequestId(1L))
+        when(itemRepository.findAllByRequestIdInOrderByIdAsc(List.of(1L)))
                 .thenReturn(List.of());
 
         final var result = itemRequestService.findAll(userId, from, size);
@@ -120,12 +155,14 @@ class ItemRequestServiceImplTest {
         assertThat(result.get(0).getCreated(), equalTo(itemRequestDto.getCreated()));
         assertThat(result.get(0).getItems().size(), equalTo(0));
 
-        verify(userRepository, times(1))
-                .existsById(userId);
+        verify(userCache, times(1))
+                .findById(userId);
         verify(itemRequestRepository, times(1))
                 .findAllByRequesterIdNotOrderByCreatedDesc(userId, pageable);
         verify(itemRepository, times(1))
-                .findAllByRequestId(1L);
+                .findAllByRequestIdInOrderByIdAsc(List.of(1L));
+        verify(itemRepository, never())
+                .findAllByRequestId(anyLong());
     }
 
     @Test
@@ -134,8 +171,8 @@ class ItemRequestServiceImplTest {
         final Integer from = 0;
         final Integer size = 10;
 
-        when(userRepository.existsById(userId))
-                .thenReturn(false);
+        when(userCache.findById(userId))
+                .thenReturn(Optional.empty());
 
         final var exception = assertThrows(
                 UserNotFoundException.class,
@@ -144,8 +181,8 @@ class ItemRequestServiceImplTest {
 
         assertThat("Пользователя с таким id не существует", equalTo(exception.getMessage()));
 
-        verify(userRepository, times(1))
-                .existsById(userId);
+        verify(userCache, times(1))
+                .findById(userId);
     }
 
     @Test
@@ -159,8 +196,8 @@ class ItemRequestServiceImplTest {
                 .created(time)
                 .build();
 
-        when(userRepository.existsById(userId))
-                .thenReturn(true);
+        when(userCache.findById(userId))
+                .thenReturn(Optional.of(UserDto.builder().id(userId).build()));
         when(itemRequestRepository.existsById(requestId))
                 .thenReturn(true);
         when(itemRequestRepository.findById(requestId))
@@ -176,8 +213,8 @@ class ItemRequestServiceImplTest {
         assertThat(result.getCreated(), equalTo(itemRequestDto.getCreated()));
         assertThat(result.getItems(), equalTo(itemRequestDto.getItems()));
 
-        verify(userRepository, times(1))
-                .existsById(userId);
+        verify(userCache, times(1))
+                .findById(userId);
         verify(itemRequestRepository, times(1))
                 .existsById(requestId);
         verify(itemRequestRepository, times(1))
@@ -192,8 +229,8 @@ class ItemRequestServiceImplTest {
         final Long userId = 1L;
         final Long requestId = 1L;
 
-        when(userRepository.existsById(userId))
-                .thenReturn(true);
+        when(userCache.findById(userId))
+                .thenReturn(Optional.of(UserDto.builder().id(userId).build()));
         when(itemRequestRepository.existsById(requestId))
                 .thenReturn(false);
 
@@ -204,8 +241,8 @@ class ItemRequestServiceImplTest {
 
         assertThat("Запроса с таким id не существует", equalTo(exception.getMessage()));
 
-        verify(userRepository, times(1))
-                .existsById(userId);
+        verify(userCache, times(1))
+                .findById(userId);
         verify(itemRequestRepository, times(1))
                 .existsById(requestId);
     }
@@ -215,8 +252,8 @@ class ItemRequestServiceImplTest {
         final Long userId = 1L;
         final Long requestId = 1L;
 
-        when(userRepository.existsById(userId))
-                .thenReturn(false);
+        when(userCache.findById(userId))
+                .thenReturn(Optional.empty());
 
         final var exception = assertThrows(
                 UserNotFoundException.class,
@@ -225,8 +262,8 @@ class ItemRequestServiceImplTest {
 
         assertThat("Пользователя с таким id не существует", equalTo(exception.getMessage()));
 
-        verify(userRepository, times(1))
-                .existsById(userId);
+        verify(userCache, times(1))
+                .findById(userId);
     }
 
     @Test
@@ -234,8 +271,8 @@ class ItemRequestServiceImplTest {
         final Long userId = 1L;
         final Long requestId = 1L;
 
-        when(userRepository.existsById(userId))
-                .thenReturn(true);
+        when(userCache.findById(userId))
+                .thenReturn(Optional.of(UserDto.builder().id(userId).build()));
         when(itemRequestRepository.existsById(requestId))
                 .thenReturn(true);
         when(itemRequestRepository.findById(requestId))
@@ -248,8 +285,8 @@ class ItemRequestServiceImplTest {
 
         assertThat("Запроса с " + requestId + " не существует", equalTo(exception.getMessage()));
 
-        verify(userRepository, times(1))
-                .existsById(userId);
+        verify(userCache, times(1))
+                .findById(userId);
         verify(itemRequestRepository, times(1))
                 .existsById(requestId);
         verify(itemRequestRepository, times(1))
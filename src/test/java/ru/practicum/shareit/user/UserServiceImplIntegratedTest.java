@@ -5,6 +5,7 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
 import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.exceptions.AlreadyExistsEmailException;
 import ru.practicum.shareit.exceptions.UserNotFoundException;
@@ -27,6 +28,8 @@ public class UserServiceImplIntegratedTest {
 
     private final UserRepository userRepository;
 
+    private final CacheManager cacheManager;
+
     private User create;
 
     @BeforeEach
@@ -150,4 +153,21 @@ public class UserServiceImplIntegratedTest {
         assertThat("Новый email совпадает со старым", equalTo(exception.getMessage()));
     }
 
+    @Test
+    void findByIdFromCache() {
+        // given
+        final Long id = create.getId();
+        userService.findById(id);
+        em.createQuery("update User u set u.name = 'newName' where u.id = :id")
+                .setParameter("id", id)
+                .executeUpdate();
+
+        // when
+        final UserDto result = userService.findById(id);
+
+        // then
+        assertThat(result.getName(), equalTo("John"));
+        assertThat(cacheManager.getCache(UserCache.NAME).get(id) != null, equalTo(true));
+    }
+
 }
@@ -5,7 +5,9 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import ru.practicum.shareit.booking.service.ItemBookingSummaryService;
 import ru.practicum.shareit.exceptions.UserNotFoundException;
+import ru.practicum.shareit.item.search.ItemSearchIndex;
 
 import java.util.List;
 import java.util.Optional;
@@ -24,9 +26,18 @@ class UserServiceImplTest {
     @Mock
     private UserRepository userRepository;
 
+    @Mock
+    private UserCache userCache;
+
+    @Mock
+    private ItemSearchIndex itemSearchIndex;
+
+    @Mock
+    private ItemBookingSummaryService itemBookingSummaryService;
+
     @BeforeEach
     void setUp() {
-        userService = new UserServiceImpl(userRepository);
+        userService = new UserServiceImpl(userRepository, itemSearchIndex, userCache, itemBookingSummaryService);
     }
 
 //    @AfterEach
@@ -59,8 +70,8 @@ class UserServiceImplTest {
     void findByIdTest() {
         final Long id = 1L;
 
-        when(userRepository.findById(id))
-                .thenReturn(Optional.of(user));
+        when(userCache.findById(id))
+                .thenReturn(Optional.of(userDto));
 
         final var result = userService.findById(id);
 
@@ -68,7 +79,7 @@ class UserServiceImplTest {
         assertThat(result.getName(), equalTo(user.getName()));
         assertThat(result.getEmail(), equalTo(user.getEmail()));
 
-        verify(userRepository, times(1))
+        verify(userCache, times(1))
                 .findById(id);
     }
 
@@ -76,7 +87,7 @@ class UserServiceImplTest {
     void findByIdUserNotFoundExceptionTest() {
         final Long id = 1L;
 
-        when(userRepository.findById(id))
+        when(userCache.findById(id))
                 .thenReturn(Optional.empty());
 
         final var exception = assertThrows(
@@ -86,7 +97,7 @@ class UserServiceImplTest {
 
         assertThat("User с идентификатором " + id + " не найден.", equalTo(exception.getMessage()));
 
-        verify(userRepository, times(1))
+        verify(userCache, times(1))
                 .findById(id);
     }
 
@@ -119,5 +130,7 @@ class UserServiceImplTest {
 
         verify(userRepository, times(1))
                 .deleteById(id);
+        verify(userCache, times(1))
+                .evict(id);
     }
 }
\ No newline at end of file